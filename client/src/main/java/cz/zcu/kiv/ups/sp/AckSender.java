@@ -0,0 +1,77 @@
+package cz.zcu.kiv.ups.sp;
+
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Sends acknowledgements of server events (ACK_DEAL_CARDS, ACK_ROUND_END,
+ * ACK_GAME_END, ACK_GAME_STATE).
+ *
+ * ACKs requested while handling events are collected and written together
+ * with one flush in a task posted after the current FX work, so events handled
+ * in the same pulse cost one write and the same ACK twice is sent once. No
+ * threads are created. ACKs that could not be sent go to the outbound journal.
+ * Used on the FX thread only.
+ */
+public class AckSender {
+
+    private final Supplier<GameClient> client;
+    private final OutboundJournal journal;
+    private final List<ProtocolMessage> pending = new ArrayList<>(4);
+    private boolean flushScheduled;
+
+    /**
+     * @param client current game client (may return null)
+     * @param journal journal for ACKs that could not be sent
+     */
+    public AckSender(Supplier<GameClient> client, OutboundJournal journal) {
+        this.client = client;
+        this.journal = journal;
+    }
+
+    /**
+     * Queues an ACK for sending at the end of the current pulse
+     * @param ack ACK message
+     */
+    public void ack(ProtocolMessage ack) {
+        for (ProtocolMessage queued : pending) {
+            if (queued.getCommand().equals(ack.getCommand())) {
+                ClientMetrics.getInstance().acksCoalesced(1);
+                return;
+            }
+        }
+
+        pending.add(ack);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            Platform.runLater(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushScheduled = false;
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<String> lines = new ArrayList<>(pending.size());
+        for (ProtocolMessage ack : pending) {
+            lines.add(ack.toString());
+        }
+
+        GameClient current = client.get();
+        if (current != null && current.getNetworkClient().sendBatch(lines)) {
+            ClientMetrics.getInstance().acksSent(lines.size());
+        } else {
+            ClientMetrics.getInstance().acksFailed(lines.size());
+            int handSize = current != null ? current.getPlayerCards().size() : 0;
+            for (ProtocolMessage ack : pending) {
+                journal.hold(ack, handSize);
+            }
+        }
+        pending.clear();
+    }
+}
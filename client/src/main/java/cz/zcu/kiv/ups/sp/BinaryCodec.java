@@ -0,0 +1,297 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ProtocolException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Length-prefixed binary protocol "BIN1", used when the server lists BIN1 in
+ * the OK of the login.
+ *
+ * Frame: marker 0xB1, payload length (2 bytes, big endian), payload.
+ * Payload: command code (index into COMMANDS, 0xFF = command name follows as
+ * a string item), then one item per parameter:
+ *   0x00 string - varint byte length, UTF-8 bytes
+ *   0x01 int    - zigzag varint (only for canonical decimals, so text is kept exactly)
+ *   0x02 card   - card index 0-31 (see Cards)
+ *
+ * Text lines are still accepted - a line never starts with 0xB1 - so messages
+ * the server sent before switching are read correctly. Messages are returned
+ * in their text form, the rest of the client is unchanged.
+ * write() is called by one thread at a time, read() by the receiving thread only.
+ */
+public class BinaryCodec implements MessageCodec {
+
+    public static final String NAME = "BIN1";
+
+    private static final int MARKER = 0xB1;
+    private static final int MAX_PAYLOAD = 0xFFFF;
+    private static final int ESCAPE = 0xFF;
+    private static final int TAG_STRING = 0;
+    private static final int TAG_INT = 1;
+    private static final int TAG_CARD = 2;
+
+    // Command codes - part of the wire format, only append new commands
+    private static final String[] COMMANDS = {
+        "LOGIN", "OK", "ERROR", "PING", "PONG", "DISCONNECT",
+        "ROOM_LIST", "ROOMS", "ROOM", "CREATE_ROOM", "ROOM_CREATED", "JOIN_ROOM", "JOINED", "LEAVE_ROOM",
+        "GAME_START", "GAME_STATE", "DEAL_CARDS", "CARD", "YOUR_TURN", "HIT", "STAND", "PLAY_CARD",
+        "OPPONENT_ACTION", "ROUND_END", "GAME_END", "OPPONENT_LEFT",
+        "PLAYER_DISCONNECTED", "PLAYER_RECONNECTED",
+        "RECONNECT", "RECONNECT_QUERY", "RECONNECT_ACCEPT", "RECONNECT_DECLINE",
+        "ACK_DEAL_CARDS", "ACK_GAME_STATE", "ACK_ROUND_END", "ACK_GAME_END"
+    };
+
+    // Lines that arrive in text form
+    private final TextCodec text = new TextCodec();
+
+    // Frame being received
+    private boolean inFrame;
+    private int headerBytes;
+    private int payloadLength;
+    private byte[] payload = new byte[128];
+    private int filled;
+    private int position;
+    private int lastReadSize;
+
+    // Frame being sent
+    private byte[] encoded = new byte[128];
+    private int encodedLength;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // ---- Encoding ----
+
+    @Override
+    public int write(OutputStream out, String message) throws IOException {
+        encodedLength = 0;
+
+        int end = message.indexOf('|');
+        String command = end < 0 ? message : message.substring(0, end);
+        int code = commandCode(command);
+        if (code < 0) {
+            putByte(ESCAPE);
+            putString(command);
+        } else {
+            putByte(code);
+        }
+
+        while (end >= 0) {
+            int start = end + 1;
+            end = message.indexOf('|', start);
+            putParameter(end < 0 ? message.substring(start) : message.substring(start, end));
+        }
+
+        if (encodedLength > MAX_PAYLOAD) {
+            throw new ProtocolException("Message too long for a " + NAME + " frame: " + encodedLength + " bytes");
+        }
+        out.write(MARKER);
+        out.write(encodedLength >>> 8);
+        out.write(encodedLength & 0xFF);
+        out.write(encoded, 0, encodedLength);
+        return 3 + encodedLength;
+    }
+
+    private static int commandCode(String command) {
+        for (int i = 0; i < COMMANDS.length; i++) {
+            if (COMMANDS[i].equals(command)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void putParameter(String param) {
+        int card = Cards.index(param);
+        if (card >= 0) {
+            putByte(TAG_CARD);
+            putByte(card);
+        } else if (isCanonicalInt(param)) {
+            int value = Integer.parseInt(param);
+            putByte(TAG_INT);
+            putVarint((value << 1) ^ (value >> 31));
+        } else {
+            putString(param);
+        }
+    }
+
+    /**
+     * Checks if a parameter is an int written exactly as Integer.toString() would write it
+     */
+    private static boolean isCanonicalInt(String param) {
+        int length = param.length();
+        int digits = param.startsWith("-") ? 1 : 0;
+        if (length == digits || length - digits > 10) {
+            return false;
+        }
+        if (param.charAt(digits) == '0' && (length > digits + 1 || digits == 1)) {
+            return false;  // Leading zero or "-0"
+        }
+        for (int i = digits; i < length; i++) {
+            char c = param.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        long value = Long.parseLong(param);
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putByte(TAG_STRING);
+        putVarint(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, encoded, encodedLength, bytes.length);
+        encodedLength += bytes.length;
+    }
+
+    private void putVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            putByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        putByte(value);
+    }
+
+    private void putByte(int value) {
+        ensureCapacity(1);
+        encoded[encodedLength++] = (byte) value;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (encodedLength + extra > encoded.length) {
+            encoded = Arrays.copyOf(encoded, Math.max(encoded.length * 2, encodedLength + extra));
+        }
+    }
+
+    // ---- Decoding ----
+
+    @Override
+    public String read(InputStream in) throws IOException {
+        while (!inFrame) {
+            int b = in.read();
+            if (b < 0) {
+                return null;
+            }
+
+            if (b == MARKER && !text.hasPartialLine()) {
+                inFrame = true;
+                headerBytes = 0;
+                payloadLength = 0;
+                filled = 0;
+            } else {
+                String message = text.accept(b);
+                if (message != null) {
+                    lastReadSize = text.getLastReadSize();
+                    return message;
+                }
+            }
+        }
+
+        while (headerBytes < 2) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Connection closed inside a " + NAME + " frame");
+            }
+            payloadLength = (payloadLength << 8) | b;
+            headerBytes++;
+        }
+
+        if (payload.length < payloadLength) {
+            payload = new byte[payloadLength];
+        }
+        while (filled < payloadLength) {
+            int count = in.read(payload, filled, payloadLength - filled);
+            if (count < 0) {
+                throw new EOFException("Connection closed inside a " + NAME + " frame");
+            }
+            filled += count;
+        }
+
+        inFrame = false;
+        lastReadSize = 3 + payloadLength;
+        return decode();
+    }
+
+    @Override
+    public int getLastReadSize() {
+        return lastReadSize;
+    }
+
+    private String decode() throws IOException {
+        if (payloadLength == 0) {
+            throw new ProtocolException("Empty " + NAME + " frame");
+        }
+
+        position = 0;
+        StringBuilder message = new StringBuilder(32);
+        int code = nextByte();
+        if (code == ESCAPE) {
+            appendItem(message);
+        } else if (code < COMMANDS.length) {
+            message.append(COMMANDS[code]);
+        } else {
+            throw new ProtocolException("Unknown " + NAME + " command code " + code);
+        }
+
+        while (position < payloadLength) {
+            message.append('|');
+            appendItem(message);
+        }
+        return message.toString();
+    }
+
+    private void appendItem(StringBuilder message) throws IOException {
+        int tag = nextByte();
+        switch (tag) {
+            case TAG_STRING:
+                int length = nextVarint();
+                if (length > payloadLength - position) {
+                    throw new ProtocolException("String past the end of a " + NAME + " frame");
+                }
+                message.append(new String(payload, position, length, StandardCharsets.UTF_8));
+                position += length;
+                break;
+            case TAG_INT:
+                int zigzag = nextVarint();
+                message.append((zigzag >>> 1) ^ -(zigzag & 1));
+                break;
+            case TAG_CARD:
+                int card = nextByte();
+                if (card >= Cards.DECK_SIZE) {
+                    throw new ProtocolException("Invalid card index " + card);
+                }
+                message.append(Cards.name(card));
+                break;
+            default:
+                throw new ProtocolException("Unknown " + NAME + " item tag " + tag);
+        }
+    }
+
+    private int nextVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = nextByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new ProtocolException("Malformed varint in a " + NAME + " frame");
+    }
+
+    private int nextByte() throws IOException {
+        if (position >= payloadLength) {
+            throw new ProtocolException("Truncated " + NAME + " frame");
+        }
+        return payload[position++] & 0xFF;
+    }
+}
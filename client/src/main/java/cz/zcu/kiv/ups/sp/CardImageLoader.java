@@ -1,16 +1,17 @@
 package cz.zcu.kiv.ups.sp;
 
 import javafx.scene.image.Image;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import cz.zcu.kiv.ups.sp.Logger;
 
 /**
- * Loads card images from resources
+ * Loads card images from resources.
+ * Safe to use from any thread, images are preloaded in the background while connecting.
  */
 public class CardImageLoader {
-    private static final Map<String, Image> imageCache = new HashMap<>();
-    private static Image backImage;
+    private static final Map<String, Image> imageCache = new ConcurrentHashMap<>();
+    private static volatile Image backImage;
 
     /**
      * Gets the image for a card
@@ -23,8 +24,9 @@ public class CardImageLoader {
         }
 
         // Check cache first
-        if (imageCache.containsKey(cardName)) {
-            return imageCache.get(cardName);
+        Image cached = imageCache.get(cardName);
+        if (cached != null) {
+            return cached;
         }
 
         // Load image
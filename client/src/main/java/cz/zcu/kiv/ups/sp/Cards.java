@@ -0,0 +1,104 @@
+package cz.zcu.kiv.ups.sp;
+
+/**
+ * Card constants and lookup tables for the 32 card Marias deck.
+ * Card index = suit * 8 + rank (same order as the server Card enums).
+ */
+public final class Cards {
+
+    public static final int DECK_SIZE = 32;
+    public static final int RANKS_PER_SUIT = 8;
+    public static final int ESO = 7;
+
+    public static final String[] SUITS = {"SRDCE", "KULE", "LISTY", "ZALUDY"};
+    public static final String[] RANKS = {"SEDM", "OSM", "DEVET", "DESET", "SPODEK", "SVRSEK", "KRAL", "ESO"};
+
+    // Point values by rank (Oko Bere rules)
+    private static final int[] RANK_VALUES = {7, 8, 9, 10, 1, 1, 2, 11};
+
+    private static final String[] NAMES = new String[DECK_SIZE];
+
+    static {
+        for (int s = 0; s < SUITS.length; s++) {
+            for (int r = 0; r < RANKS.length; r++) {
+                NAMES[s * RANKS_PER_SUIT + r] = SUITS[s] + "-" + RANKS[r];
+            }
+        }
+    }
+
+    private Cards() {
+    }
+
+    /**
+     * Gets the index of a card
+     * @param card card name in format "BARVA-HODNOTA" (e.g., "SRDCE-KRAL")
+     * @return card index 0-31 or -1 if card is not valid
+     */
+    public static int index(String card) {
+        if (card == null) {
+            return -1;
+        }
+
+        int dash = card.indexOf('-');
+        if (dash < 0) {
+            return -1;
+        }
+
+        int suit = indexOf(SUITS, card, 0, dash);
+        int rank = indexOf(RANKS, card, dash + 1, card.length());
+        if (suit < 0 || rank < 0) {
+            return -1;
+        }
+        return suit * RANKS_PER_SUIT + rank;
+    }
+
+    private static int indexOf(String[] table, String card, int from, int to) {
+        for (int i = 0; i < table.length; i++) {
+            String name = table[i];
+            if (name.length() == to - from && card.startsWith(name, from)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the card name for an index
+     * @param index card index 0-31
+     * @return card name (e.g., "SRDCE-KRAL")
+     */
+    public static String name(int index) {
+        return NAMES[index];
+    }
+
+    /**
+     * Gets the rank (0-7) of a card index
+     */
+    public static int rank(int index) {
+        return index % RANKS_PER_SUIT;
+    }
+
+    /**
+     * Gets the point value of a card index
+     */
+    public static int value(int index) {
+        return RANK_VALUES[index % RANKS_PER_SUIT];
+    }
+
+    /**
+     * Gets the point value of a card
+     * @param card card name
+     * @return card value or 0 if card is not valid
+     */
+    public static int value(String card) {
+        int index = index(card);
+        return index < 0 ? 0 : value(index);
+    }
+
+    /**
+     * Checks if a card index is an ace
+     */
+    public static boolean isAce(int index) {
+        return rank(index) == ESO;
+    }
+}
@@ -0,0 +1,114 @@
+package cz.zcu.kiv.ups.sp;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder event types of the client.
+ *
+ * Events are recorded only while a recording is running (e.g. jcmd <pid> JFR.start),
+ * call sites fill in fields only after shouldCommit() so a disabled event costs
+ * little more than the begin/end timestamps.
+ */
+public final class ClientEvents {
+
+    private static final String CATEGORY = "UPS Client";
+
+    private ClientEvents() {
+    }
+
+    /**
+     * Extracts the command of a protocol line (only called when an event is committed)
+     */
+    static String command(String line) {
+        int end = line.indexOf('|');
+        return end < 0 ? line : line.substring(0, end);
+    }
+
+    @Name("cz.zcu.kiv.ups.sp.MessageSent")
+    @Label("Message Sent")
+    @Category({CATEGORY, "Network"})
+    @StackTrace(false)
+    public static class MessageSent extends Event {
+        @Label("Command")
+        String command;
+
+        @Label("Size")
+        @DataAmount
+        int size;
+    }
+
+    @Name("cz.zcu.kiv.ups.sp.MessageReceived")
+    @Label("Message Received")
+    @Description("Line read from the server socket, duration excludes waiting for data")
+    @Category({CATEGORY, "Network"})
+    @StackTrace(false)
+    public static class MessageReceived extends Event {
+        @Label("Command")
+        String command;
+
+        @Label("Size")
+        @DataAmount
+        int size;
+    }
+
+    @Name("cz.zcu.kiv.ups.sp.MessageParsed")
+    @Label("Message Parsed")
+    @Category({CATEGORY, "Protocol"})
+    @StackTrace(false)
+    public static class MessageParsed extends Event {
+        @Label("Command")
+        String command;
+
+        @Label("Length")
+        int length;
+
+        @Label("Success")
+        boolean success;
+    }
+
+    @Name("cz.zcu.kiv.ups.sp.MessageHandled")
+    @Label("Message Handled")
+    @Description("Server event handled on the FX thread")
+    @Category({CATEGORY, "Protocol"})
+    @StackTrace(false)
+    public static class MessageHandled extends Event {
+        @Label("Command")
+        String command;
+
+        @Label("Dispatch Delay")
+        @Description("Time from posting to the FX thread until handling started")
+        @Timespan(Timespan.NANOSECONDS)
+        long dispatchDelay;
+    }
+
+    @Name("cz.zcu.kiv.ups.sp.ReconnectAttempt")
+    @Label("Reconnect Attempt")
+    @Category({CATEGORY, "Network"})
+    @StackTrace(false)
+    public static class ReconnectAttempt extends Event {
+        @Label("Attempt")
+        int attempt;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("cz.zcu.kiv.ups.sp.CardRowUpdate")
+    @Label("Card Row Update")
+    @Category({CATEGORY, "Rendering"})
+    @StackTrace(false)
+    public static class CardRowUpdate extends Event {
+        @Label("Row")
+        String row;
+
+        @Label("Cards")
+        int cards;
+    }
+}
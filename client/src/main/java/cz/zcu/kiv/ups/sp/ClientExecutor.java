@@ -0,0 +1,190 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs background work of the client (network requests, receiver, processor) on
+ * virtual threads, so a task costs no platform thread and blocking on the socket
+ * or a queue is cheap.
+ *
+ * Tasks are named for thread dumps and JFR. Session tasks belong to the current
+ * connection (connect subtasks, heartbeat, receiver) and are interrupted by
+ * cancelSessionTasks() on disconnect; all tasks are interrupted by shutdown(). Code run here must not block inside synchronized
+ * (that pins the carrier thread) - use java.util.concurrent locks instead.
+ */
+public class ClientExecutor {
+
+    private final Set<Thread> sessionTasks = ConcurrentHashMap.newKeySet();
+    private final Set<Thread> allTasks = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private volatile boolean shutdown;
+
+    /**
+     * Starts a task that is not tied to the connection (connect, disconnect, reconnect)
+     * @param name task name
+     * @param task task
+     * @return thread running the task
+     */
+    public Thread start(String name, Runnable task) {
+        return start(name, task, false);
+    }
+
+    /**
+     * Starts a task belonging to the current connection
+     * @param name task name
+     * @param task task
+     * @return thread running the task
+     */
+    public Thread startSessionTask(String name, Runnable task) {
+        return start(name, task, true);
+    }
+
+    /**
+     * Starts a task belonging to the current connection and returns its result.
+     * Cancelling the future interrupts the task.
+     * @param name task name
+     * @param task task
+     * @return future of the task result
+     */
+    public <T> Future<T> submitSessionTask(String name, Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        start(name, future, true);
+        return future;
+    }
+
+    /**
+     * Creates an executor that runs its tasks one at a time in submission order,
+     * for state confined to one worker (e.g. OddsEngine). Tasks run as named
+     * tasks of this executor only while there is work queued.
+     * @param name task name
+     * @return serial executor
+     */
+    public Executor serialExecutor(String name) {
+        return new SerialExecutor(name);
+    }
+
+    private Thread start(String name, Runnable task, boolean session) {
+        if (shutdown) {
+            throw new IllegalStateException("Client executor is shut down");
+        }
+
+        Thread thread = Thread.ofVirtual().name(name).unstarted(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                Logger.error("Task " + name + " failed: " + e);
+            } finally {
+                Thread self = Thread.currentThread();
+                sessionTasks.remove(self);
+                allTasks.remove(self);
+                activeTasks.decrementAndGet();
+            }
+        });
+
+        activeTasks.incrementAndGet();
+        allTasks.add(thread);
+        if (session) {
+            sessionTasks.add(thread);
+        }
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Queue drained by one task at a time - the task handing over publishes
+     * the confined state to the next one through the scheduled flag
+     */
+    private class SerialExecutor implements Executor {
+        private final String name;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        SerialExecutor(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+            if (scheduled.compareAndSet(false, true)) {
+                start(name, this::drain, false);
+            }
+        }
+
+        private void drain() {
+            do {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        Logger.error("Task " + name + " failed: " + e);
+                    }
+                }
+                scheduled.set(false);
+                // A task added after the last poll may have seen scheduled still set
+            } while (!tasks.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+    }
+
+    /**
+     * Interrupts all session tasks (the connection is gone, their results are not needed)
+     * @return number of interrupted tasks
+     */
+    public int cancelSessionTasks() {
+        int cancelled = 0;
+        for (Thread thread : sessionTasks) {
+            thread.interrupt();
+            cancelled++;
+        }
+        if (cancelled > 0) {
+            Logger.info("Cancelled " + cancelled + " session task(s)");
+        }
+        return cancelled;
+    }
+
+    /**
+     * Number of tasks currently running
+     */
+    public int getActiveTaskCount() {
+        return activeTasks.get();
+    }
+
+    /**
+     * Interrupts all tasks and waits for them to finish
+     * @param timeoutMs maximum wait
+     * @return true if all tasks finished in time
+     */
+    public boolean shutdown(long timeoutMs) {
+        shutdown = true;
+        for (Thread thread : allTasks) {
+            thread.interrupt();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        try {
+            for (Thread thread : allTasks) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !thread.join(Duration.ofNanos(remaining))) {
+                    Logger.warning(() -> activeTasks.get() + " client task(s) still running after shutdown");
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+}
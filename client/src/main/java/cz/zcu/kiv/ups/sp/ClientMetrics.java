@@ -0,0 +1,377 @@
+package cz.zcu.kiv.ups.sp;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Client metrics registry.
+ *
+ * Counters are LongAdders and commands are looked up in a fixed table without
+ * allocating, so recording on the receive path costs a few striped adds.
+ * Values are published as an MXBean under cz.zcu.kiv.ups.sp:type=ClientMetrics.
+ */
+public class ClientMetrics implements ClientMetricsMXBean {
+
+    public static final String OBJECT_NAME = "cz.zcu.kiv.ups.sp:type=ClientMetrics";
+
+    private static final String OTHER_COMMAND = "OTHER";
+
+    // Protocol commands in both directions, anything else is counted as OTHER
+    private static final String[] COMMANDS = {
+        "LOGIN", "OK", "ERROR", "PING", "PONG", "DISCONNECT",
+        "ROOM_LIST", "ROOMS", "ROOM", "CREATE_ROOM", "ROOM_CREATED", "JOIN_ROOM", "JOINED", "LEAVE_ROOM",
+        "GAME_START", "GAME_STATE", "DEAL_CARDS", "CARD", "YOUR_TURN", "HIT", "STAND", "PLAY_CARD",
+        "OPPONENT_ACTION", "ROUND_END", "GAME_END", "OPPONENT_LEFT",
+        "PLAYER_DISCONNECTED", "PLAYER_RECONNECTED",
+        "RECONNECT", "RECONNECT_QUERY", "RECONNECT_ACCEPT", "RECONNECT_DECLINE",
+        "ACK_DEAL_CARDS", "ACK_GAME_STATE", "ACK_ROUND_END", "ACK_GAME_END",
+        OTHER_COMMAND
+    };
+
+    // Command indexes grouped by command length, so a lookup compares only a few names
+    private static final int[][] COMMANDS_BY_LENGTH;
+
+    static {
+        int maxLength = 0;
+        for (String command : COMMANDS) {
+            maxLength = Math.max(maxLength, command.length());
+        }
+
+        COMMANDS_BY_LENGTH = new int[maxLength + 1][0];
+        for (int i = 0; i < COMMANDS.length - 1; i++) {
+            int[] group = COMMANDS_BY_LENGTH[COMMANDS[i].length()];
+            group = Arrays.copyOf(group, group.length + 1);
+            group[group.length - 1] = i;
+            COMMANDS_BY_LENGTH[COMMANDS[i].length()] = group;
+        }
+    }
+
+    private static final ClientMetrics instance = new ClientMetrics();
+
+    private final LongAdder[] received = newAdders(COMMANDS.length);
+    private final LongAdder[] sent = newAdders(COMMANDS.length);
+
+    private final LongAdder parseFailures = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder responseTimeouts = new LongAdder();
+    private final LongAdder reconnectAttempts = new LongAdder();
+    private final LongAdder reconnectSuccesses = new LongAdder();
+    private final LongAdder acksSent = new LongAdder();
+    private final LongAdder acksFailed = new LongAdder();
+    private final LongAdder acksCoalesced = new LongAdder();
+    private final LongAdder serverEventsDropped = new LongAdder();
+
+    private final LatencyHistogram responseWaitTime = new LatencyHistogram();
+    private final LatencyHistogram reconnectDuration = new LatencyHistogram();
+    private final LatencyHistogram fxTaskLatency = new LatencyHistogram();
+    private volatile long lastFxTaskLatencyNanos;
+
+    private volatile InboundQueue<?> asyncQueue;
+    private volatile InboundQueue<?> syncQueue;
+    private volatile IntSupplier activeTasks = () -> 0;
+
+    private ClientMetrics() {
+    }
+
+    public static ClientMetrics getInstance() {
+        return instance;
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Registers the MXBean in the platform MBean server
+     */
+    public synchronized void register() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            }
+        } catch (Exception e) {
+            Logger.error("Unable to register metrics MBean: " + e.getMessage());
+        }
+    }
+
+    // ---- Recording ----
+
+    /**
+     * Counts a received line (called for every line, before parsing)
+     */
+    public void messageReceived(String line) {
+        received[commandIndex(line)].increment();
+    }
+
+    /**
+     * Counts a sent line
+     */
+    public void messageSent(String line) {
+        sent[commandIndex(line)].increment();
+    }
+
+    public void parseFailed() {
+        parseFailures.increment();
+    }
+
+    /**
+     * Records how long an FX probe task waited to run (probed by PerformanceOverlay while shown)
+     */
+    public void fxProbeCompleted(long latencyNanos) {
+        lastFxTaskLatencyNanos = latencyNanos;
+        fxTaskLatency.record(latencyNanos);
+    }
+
+    public void validationFailed() {
+        validationFailures.increment();
+    }
+
+    /**
+     * Records how long a caller waited for a sync response
+     * @param nanos wait time
+     * @param timedOut true if no response arrived
+     */
+    public void responseWaited(long nanos, boolean timedOut) {
+        responseWaitTime.record(nanos);
+        if (timedOut) {
+            responseTimeouts.increment();
+        }
+    }
+
+    public void reconnectAttempted() {
+        reconnectAttempts.increment();
+    }
+
+    /**
+     * Records a successful reconnect
+     * @param nanos time from connection loss to successful login
+     */
+    public void reconnectSucceeded(long nanos) {
+        reconnectSuccesses.increment();
+        reconnectDuration.record(nanos);
+    }
+
+    public void acksSent(int count) {
+        acksSent.add(count);
+    }
+
+    public void acksFailed(int count) {
+        acksFailed.add(count);
+    }
+
+    /**
+     * Counts ACKs not sent because the same ACK was already pending
+     */
+    public void acksCoalesced(int count) {
+        acksCoalesced.add(count);
+    }
+
+    /**
+     * Counts an event not delivered to a subscriber whose buffer was full
+     */
+    public void serverEventDropped() {
+        serverEventsDropped.increment();
+    }
+
+    /**
+     * Sets inbound queues published as queue gauges
+     */
+    public void setInboundQueues(InboundQueue<?> asyncQueue, InboundQueue<?> syncQueue) {
+        this.asyncQueue = asyncQueue;
+        this.syncQueue = syncQueue;
+    }
+
+    /**
+     * Sets source of the running background task gauge
+     */
+    public void setActiveTaskSource(IntSupplier activeTasks) {
+        this.activeTasks = activeTasks;
+    }
+
+    /**
+     * Finds the command of a line in the command table without allocating
+     */
+    private static int commandIndex(String line) {
+        int end = line.indexOf('|');
+        if (end < 0) {
+            end = line.length();
+        }
+
+        if (end < COMMANDS_BY_LENGTH.length) {
+            for (int index : COMMANDS_BY_LENGTH[end]) {
+                if (line.startsWith(COMMANDS[index])) {
+                    return index;
+                }
+            }
+        }
+        return COMMANDS.length - 1;
+    }
+
+    /**
+     * Gets the latency of the most recent FX probe task
+     */
+    public double getLastFxTaskLatencyMillis() {
+        return lastFxTaskLatencyNanos / 1_000_000.0;
+    }
+
+    // ---- MXBean attributes ----
+
+    @Override
+    public long getMessagesReceived() {
+        return sum(received);
+    }
+
+    @Override
+    public long getMessagesSent() {
+        return sum(sent);
+    }
+
+    @Override
+    public Map<String, Long> getMessagesReceivedByCommand() {
+        return byCommand(received);
+    }
+
+    @Override
+    public Map<String, Long> getMessagesSentByCommand() {
+        return byCommand(sent);
+    }
+
+    @Override
+    public int getAsyncQueueDepth() {
+        InboundQueue<?> queue = asyncQueue;
+        return queue != null ? queue.size() : 0;
+    }
+
+    @Override
+    public int getSyncQueueDepth() {
+        InboundQueue<?> queue = syncQueue;
+        return queue != null ? queue.size() : 0;
+    }
+
+    @Override
+    public int getAsyncQueueHighWatermark() {
+        InboundQueue<?> queue = asyncQueue;
+        return queue != null ? queue.getHighWatermark() : 0;
+    }
+
+    @Override
+    public long getInboundMessagesDropped() {
+        InboundQueue<?> async = asyncQueue;
+        InboundQueue<?> sync = syncQueue;
+        return (async != null ? async.getDroppedCount() : 0) + (sync != null ? sync.getDroppedCount() : 0);
+    }
+
+    @Override
+    public long getServerEventsDropped() {
+        return serverEventsDropped.sum();
+    }
+
+    @Override
+    public int getActiveClientTasks() {
+        return activeTasks.getAsInt();
+    }
+
+    @Override
+    public long getParseFailures() {
+        return parseFailures.sum();
+    }
+
+    @Override
+    public long getValidationFailures() {
+        return validationFailures.sum();
+    }
+
+    @Override
+    public long getResponseTimeouts() {
+        return responseTimeouts.sum();
+    }
+
+    @Override
+    public LatencyHistogram.Snapshot getResponseWaitTime() {
+        return responseWaitTime.snapshot();
+    }
+
+    @Override
+    public long getReconnectAttempts() {
+        return reconnectAttempts.sum();
+    }
+
+    @Override
+    public long getReconnectSuccesses() {
+        return reconnectSuccesses.sum();
+    }
+
+    @Override
+    public LatencyHistogram.Snapshot getReconnectDuration() {
+        return reconnectDuration.snapshot();
+    }
+
+    @Override
+    public long getAcksSent() {
+        return acksSent.sum();
+    }
+
+    @Override
+    public long getAcksFailed() {
+        return acksFailed.sum();
+    }
+
+    @Override
+    public long getAcksCoalesced() {
+        return acksCoalesced.sum();
+    }
+
+    @Override
+    public LatencyHistogram.Snapshot getFxTaskLatency() {
+        return fxTaskLatency.snapshot();
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < COMMANDS.length; i++) {
+            received[i].reset();
+            sent[i].reset();
+        }
+        parseFailures.reset();
+        validationFailures.reset();
+        responseTimeouts.reset();
+        reconnectAttempts.reset();
+        reconnectSuccesses.reset();
+        acksSent.reset();
+        acksFailed.reset();
+        acksCoalesced.reset();
+        serverEventsDropped.reset();
+        responseWaitTime.reset();
+        reconnectDuration.reset();
+        fxTaskLatency.reset();
+    }
+
+    private static long sum(LongAdder[] adders) {
+        long total = 0;
+        for (LongAdder adder : adders) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    private static Map<String, Long> byCommand(LongAdder[] adders) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < COMMANDS.length; i++) {
+            long value = adders[i].sum();
+            if (value > 0) {
+                result.put(COMMANDS[i], value);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.util.Map;
+
+/**
+ * Client metrics attributes published over JMX (readable from jconsole)
+ */
+public interface ClientMetricsMXBean {
+
+    long getMessagesReceived();
+
+    long getMessagesSent();
+
+    Map<String, Long> getMessagesReceivedByCommand();
+
+    Map<String, Long> getMessagesSentByCommand();
+
+    int getAsyncQueueDepth();
+
+    int getSyncQueueDepth();
+
+    int getAsyncQueueHighWatermark();
+
+    /**
+     * Messages dropped or rejected because an inbound queue was full
+     */
+    long getInboundMessagesDropped();
+
+    /**
+     * Server events not delivered to a subscriber because its buffer was full
+     */
+    long getServerEventsDropped();
+
+    /**
+     * Background tasks (virtual threads) currently running
+     */
+    int getActiveClientTasks();
+
+    long getParseFailures();
+
+    long getValidationFailures();
+
+    long getResponseTimeouts();
+
+    LatencyHistogram.Snapshot getResponseWaitTime();
+
+    long getReconnectAttempts();
+
+    long getReconnectSuccesses();
+
+    LatencyHistogram.Snapshot getReconnectDuration();
+
+    long getAcksSent();
+
+    long getAcksFailed();
+
+    /**
+     * Duplicate ACKs merged into one already waiting to be sent
+     */
+    long getAcksCoalesced();
+
+    /**
+     * Wait of FX probe tasks, sampled only while the performance overlay is shown
+     */
+    LatencyHistogram.Snapshot getFxTaskLatency();
+
+    /**
+     * Resets all counters and histograms
+     */
+    void reset();
+}
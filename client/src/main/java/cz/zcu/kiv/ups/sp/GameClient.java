@@ -1,34 +1,55 @@
 package cz.zcu.kiv.ups.sp;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ProtocolException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import cz.zcu.kiv.ups.sp.Logger;
 
 /**
  * Game client that handles communication with the game server
  * and maintains game state.
+ *
+ * Session state is an immutable SessionState snapshot swapped with compare-and-set,
+ * so the receiver, FX and reconnect threads never see half-applied changes.
+ *
+ * Requests (login, rooms, HIT/STAND) return CompletableFutures completed when the
+ * message receiver passes the response to dispatchResponse(), so no thread waits
+ * for a response and requests can be chained or combined. Handshake steps run
+ * before the receiver starts and read their response on the calling thread.
+ *
+ * Game events (YOUR_TURN, CARD, ROUND_END, ...) are published to getEvents()
+ * subscribers as they are received.
  */
 public class GameClient {
-    private NetworkClient networkClient;
-    private String sessionId;
-    private String nickname;
-    private String currentRoomId;
-    private ClientState state;
-    private List<String> playerCards;
-    private List<String> opponentCards;
-    private int opponentCardCount;
-    private String opponentNickname;
-    private String currentRole; // BANKER or PLAYER
-    private int yourScore;
-    private int opponentScore;
-    private int currentRound;
-    private int playerHandValue;      // Player's hand value (from server)
-    private int opponentHandValue;    // Opponent's hand value (from server)
-
-    // Reconnect query info
-    private boolean hasPendingReconnectQuery;
-    private String reconnectRoomId;
-    private String reconnectOpponentNickname;
+    private final NetworkClient networkClient;
+
+    // Current session snapshot, replaced as a whole by update()
+    private final AtomicReference<SessionState> session = new AtomicReference<>(SessionState.INITIAL);
+
+    // Requests waiting for their response, completed by dispatchResponse()
+    private final PendingRequests pendingRequests = new PendingRequests();
+    // Lock instead of synchronized - a virtual thread blocked in the send would pin its carrier
+    private final ReentrantLock requestLock = new ReentrantLock();
+    private static final long REQUEST_TIMEOUT_MS = 5000;
+    private static final long ROOM_REQUEST_TIMEOUT_MS = 10000;  // Create/join room
+
+    // Server events for independent subscribers, each with its own buffer and delivery thread
+    private static final int EVENT_BUFFER_CAPACITY = 256;
+    private final SubmissionPublisher<ProtocolMessage> events = new SubmissionPublisher<>(
+            task -> Thread.ofVirtual().name("server-events").start(task), EVENT_BUFFER_CAPACITY);
 
     /**
      * Client states
@@ -42,16 +63,40 @@ public class GameClient {
     }
 
     /**
-     * Creates a new game client
+     * Creates a new game client with its own executor (tools without a controller)
      * @param host server host
      * @param port server port
      */
     public GameClient(String host, int port) {
-        this.networkClient = new NetworkClient(host, port);
-        this.state = ClientState.DISCONNECTED;
-        this.playerCards = new ArrayList<>();
-        this.opponentCards = new ArrayList<>();
-        this.opponentCardCount = 0;
+        this(host, port, new ClientExecutor());
+    }
+
+    /**
+     * Creates a new game client
+     * @param host server host
+     * @param port server port
+     * @param executor executor running the connection's background tasks
+     */
+    public GameClient(String host, int port, ClientExecutor executor) {
+        this.networkClient = new NetworkClient(host, port, executor);
+    }
+
+    /**
+     * Applies a transition to the session snapshot atomically.
+     * The transition may be retried, so it must not have side effects.
+     * @param transition function creating the next snapshot
+     * @return the new snapshot
+     */
+    public SessionState update(UnaryOperator<SessionState> transition) {
+        return session.updateAndGet(transition);
+    }
+
+    /**
+     * Gets the current session snapshot - read several values from one snapshot
+     * to get a consistent view
+     */
+    public SessionState getSession() {
+        return session.get();
     }
 
     /**
@@ -67,6 +112,20 @@ public class GameClient {
         return false;
     }
 
+    /**
+     * Connects to the server using already resolved addresses
+     * @param addresses server addresses (see NetworkClient.resolve())
+     * @return true if successful
+     */
+    public boolean connect(InetAddress[] addresses) {
+        if (networkClient.connect(addresses)) {
+            setState(ClientState.CONNECTED);
+            Logger.info("Connected to server");
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Logs in with a nickname (new login)
      * @param nickname player nickname
@@ -77,17 +136,28 @@ public class GameClient {
     }
 
     /**
-     * Logs in with nickname and session ID (reconnect)
+     * Logs in with nickname and session ID (reconnect).
+     * Blocks until the server answers - used during the handshake, before a receiver runs.
      * @param nickname player nickname
      * @param sessionId session ID for reconnect (null for new login)
      * @return true if successful
      */
     public boolean login(String nickname, String sessionId) {
-        if (state != ClientState.CONNECTED) {
+        if (getState() != ClientState.CONNECTED) {
             Logger.warning("Cannot login, client not connected.");
             return false;
         }
+        return awaitHandshake(loginAsync(nickname, sessionId), "login");
+    }
 
+    /**
+     * Logs in with nickname and session ID, the response is delivered to dispatchResponse()
+     * @param nickname player nickname
+     * @param sessionId session ID for reconnect (null for new login)
+     * @return future completed with true if logged in or the server asks about reconnecting
+     *         (check hasPendingReconnectQuery())
+     */
+    public CompletableFuture<Boolean> loginAsync(String nickname, String sessionId) {
         ProtocolMessage loginMsg;
         if (sessionId != null && !sessionId.isEmpty()) {
             // Reconnect - include session ID
@@ -97,30 +167,22 @@ public class GameClient {
             loginMsg = ProtocolMessage.login(nickname);
         }
 
-        if (!networkClient.send(loginMsg.toString())) {
-            Logger.error("Failed to send login message.");
-            return false;
-        }
-
-        String response = networkClient.receive();
-        if (response == null) {
-            Logger.error("No response from server during login.");
-            return false;
-        }
-
-        ProtocolMessage msg = ProtocolMessage.parse(response);
-        if (msg == null) {
-            Logger.error("Failed to parse server response during login.");
-            return false;
-        }
+        CompletableFuture<ProtocolMessage> response = expect(REQUEST_TIMEOUT_MS);
+        CompletableFuture<Boolean> result = response.thenApply(msg -> applyLoginResponse(nickname, msg));
+        sendRequest(loginMsg,
+                msg -> msg.getCommand().equals("OK") || msg.getCommand().equals("RECONNECT_QUERY"),
+                response);
+        return result;
+    }
 
+    private boolean applyLoginResponse(String nickname, ProtocolMessage msg) {
         if (msg.isError()) {
             Logger.error("Login failed: " + msg.getErrorMessage());
 
             // Clear session ID if expired/invalid
             String errorMsg = msg.getErrorMessage();
             if (errorMsg != null && errorMsg.contains("Session")) {
-                this.sessionId = null;
+                update(current -> current.withSessionId(null));
             }
             return false;
         }
@@ -128,29 +190,261 @@ public class GameClient {
         if ("RECONNECT_QUERY".equals(msg.getCommand())) {
             // Server is asking if we want to reconnect to an ongoing game
             if (msg.getParameterCount() >= 2) {
-                this.hasPendingReconnectQuery = true;
-                this.reconnectRoomId = msg.getParameter(0);
-                this.reconnectOpponentNickname = msg.getParameter(1);
-                this.nickname = nickname;  // Store nickname for later
+                String roomId = msg.getParameter(0);
+                String opponent = msg.getParameter(1);
+                update(current -> current.withReconnectQuery(nickname, roomId, opponent));  // Store nickname for later
                 return true;  // Return true - caller should check hasPendingReconnectQuery()
             }
             Logger.warning("Received invalid RECONNECT_QUERY with " + msg.getParameterCount() + " parameters.");
             return false;
         }
 
-        if ("OK".equals(msg.getCommand()) && msg.getParameterCount() > 0) {
-            this.sessionId = msg.getParameter(0);
-            this.nickname = nickname;
-            setState(ClientState.LOBBY);
-            this.hasPendingReconnectQuery = false;  // Clear any pending query
+        if (msg.getParameterCount() > 0) {
+            String newSessionId = msg.getParameter(0);
+            update(current -> current.withLogin(nickname, newSessionId, ClientState.LOBBY));  // Clears any pending query
+            applyServerFormats(msg);
             Logger.info("Login successful");
             return true;
         }
 
-        Logger.warning("Unknown response from server during login: " + response);
+        Logger.warning("Unknown response from server during login: " + msg);
         return false;
     }
 
+    /**
+     * Switches to the binary protocol if the server lists it after the session ID
+     * in the OK of the login (OK|sessionId|BIN1). Runs on the thread that read the
+     * OK, before it reads anything else. -Dups.codec=text keeps the text protocol.
+     */
+    private void applyServerFormats(ProtocolMessage ok) {
+        if ("text".equalsIgnoreCase(System.getProperty("ups.codec"))) {
+            return;
+        }
+        for (int i = 1; i < ok.getParameterCount(); i++) {
+            if (BinaryCodec.NAME.equals(ok.getParameter(i))) {
+                networkClient.setCodec(new BinaryCodec());
+                return;
+            }
+        }
+    }
+
+    // Requests answered through dispatchResponse()
+
+    /**
+     * Requests the room list
+     * @return future completed with the rooms sorted by ID, fails with ProtocolException
+     *         if the server returns an error or an invalid room count
+     */
+    public CompletableFuture<List<RoomInfo>> listRoomsAsync() {
+        CompletableFuture<ProtocolMessage> header = expect(REQUEST_TIMEOUT_MS);
+        // Runs on the thread completing the header, so ROOM lines are expected before they are read
+        CompletableFuture<List<RoomInfo>> rooms = header.thenCompose(this::collectRooms);
+        sendRequest(ProtocolMessage.roomList(), isCommand("ROOMS"), header);
+        return rooms;
+    }
+
+    private CompletableFuture<List<RoomInfo>> collectRooms(ProtocolMessage header) {
+        if (header.isError()) {
+            return CompletableFuture.failedFuture(new ProtocolException(header.getErrorMessage()));
+        }
+
+        // VALIDATION: Get and validate room count
+        Integer roomCount = header.getParameterCount() > 0
+                ? MessageValidator.validateRoomCount(header.getParameter(0))
+                : null;
+        if (roomCount == null) {
+            return CompletableFuture.failedFuture(new ProtocolException("Invalid room count from server"));
+        }
+
+        List<CompletableFuture<ProtocolMessage>> lines = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            // Expected right after ROOMS, so no other request can register in between
+            CompletableFuture<ProtocolMessage> line = expect(REQUEST_TIMEOUT_MS);
+            pendingRequests.register(isCommand("ROOM"), line);
+            lines.add(line);
+        }
+
+        return CompletableFuture.allOf(lines.toArray(CompletableFuture<?>[]::new)).thenApply(done -> {
+            List<RoomInfo> rooms = new ArrayList<>(roomCount);
+            for (CompletableFuture<ProtocolMessage> line : lines) {
+                ProtocolMessage roomMsg = line.join();
+                RoomInfo room = roomMsg.isError() ? null : RoomInfo.parse(roomMsg.toString());
+                if (room != null) {
+                    rooms.add(room);
+                }
+            }
+
+            // Sort rooms by ID for consistent ordering
+            rooms.sort((r1, r2) -> r1.getId().compareTo(r2.getId()));
+            return rooms;
+        });
+    }
+
+    /**
+     * Creates a room and enters it when the server confirms
+     * @param roomName room name
+     * @return future completed with ROOM_CREATED or ERROR
+     */
+    public CompletableFuture<ProtocolMessage> createRoomAsync(String roomName) {
+        CompletableFuture<ProtocolMessage> response = expect(ROOM_REQUEST_TIMEOUT_MS);
+        CompletableFuture<ProtocolMessage> result = response.thenApply(msg -> {
+            if (!msg.isError() && msg.getParameterCount() > 0) {
+                enterRoom(msg.getParameter(0), ClientState.IN_ROOM);
+            }
+            return msg;
+        });
+        sendRequest(ProtocolMessage.createRoom(roomName), isCommand("ROOM_CREATED"), response);
+        return result;
+    }
+
+    /**
+     * Joins a room and enters it when the server confirms
+     * @param roomId room ID
+     * @return future completed with JOINED or ERROR
+     */
+    public CompletableFuture<ProtocolMessage> joinRoomAsync(String roomId) {
+        CompletableFuture<ProtocolMessage> response = expect(ROOM_REQUEST_TIMEOUT_MS);
+        CompletableFuture<ProtocolMessage> result = response.thenApply(msg -> {
+            if (!msg.isError()) {
+                enterRoom(roomId, ClientState.IN_ROOM);
+            }
+            return msg;
+        });
+        sendRequest(ProtocolMessage.joinRoom(roomId), isCommand("JOINED"), response);
+        return result;
+    }
+
+    /**
+     * Leaves the current room and returns to the lobby when the server confirms
+     * @return future completed with OK or ERROR
+     */
+    public CompletableFuture<ProtocolMessage> leaveRoomAsync() {
+        CompletableFuture<ProtocolMessage> response = expect(REQUEST_TIMEOUT_MS);
+        CompletableFuture<ProtocolMessage> result = response.thenApply(msg -> {
+            if (!msg.isError()) {
+                enterRoom(null, ClientState.LOBBY);
+            }
+            return msg;
+        });
+        sendRequest(ProtocolMessage.leaveRoom(), isCommand("OK"), response);
+        return result;
+    }
+
+    /**
+     * Takes a card
+     * @return future completed with OK or ERROR, the card itself arrives as CARD
+     */
+    public CompletableFuture<ProtocolMessage> hitAsync() {
+        return request(ProtocolMessage.hit(), "OK", REQUEST_TIMEOUT_MS);
+    }
+
+    /**
+     * Stands
+     * @return future completed with OK or ERROR
+     */
+    public CompletableFuture<ProtocolMessage> standAsync() {
+        return request(ProtocolMessage.stand(), "OK", REQUEST_TIMEOUT_MS);
+    }
+
+    /**
+     * Sends a request and expects a response
+     * @param msg request
+     * @param expectedCommand command of the response (ERROR is always accepted)
+     * @param timeoutMs time to wait for the response
+     * @return future completed with the response, fails with TimeoutException when
+     *         none arrives in time and with IOException when the connection is lost
+     */
+    public CompletableFuture<ProtocolMessage> request(ProtocolMessage msg, String expectedCommand, long timeoutMs) {
+        CompletableFuture<ProtocolMessage> response = expect(timeoutMs);
+        sendRequest(msg, isCommand(expectedCommand), response);
+        return response;
+    }
+
+    /**
+     * Completes the pending request a received message answers. Called by the message receiver.
+     * Actions chained on the request without an executor run on the calling thread.
+     * @param msg received message
+     * @return true if the message was a response to a pending request
+     */
+    public boolean dispatchResponse(ProtocolMessage msg) {
+        return pendingRequests.complete(msg);
+    }
+
+    private static Predicate<ProtocolMessage> isCommand(String command) {
+        return msg -> msg.getCommand().equals(command);
+    }
+
+    /**
+     * Creates the future of a response, failed with TimeoutException when none arrives in time
+     */
+    private CompletableFuture<ProtocolMessage> expect(long timeoutMs) {
+        long start = System.nanoTime();
+        CompletableFuture<ProtocolMessage> response = new CompletableFuture<>();
+        response.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).whenComplete((msg, error) ->
+                ClientMetrics.getInstance().responseWaited(System.nanoTime() - start, error instanceof TimeoutException));
+        return response;
+    }
+
+    /**
+     * Registers and sends a request. Both happen under one lock, so requests are
+     * registered in the order they are sent and responses match in order.
+     */
+    private void sendRequest(ProtocolMessage msg, Predicate<ProtocolMessage> expected,
+                             CompletableFuture<ProtocolMessage> response) {
+        boolean sent;
+        requestLock.lock();
+        try {
+            pendingRequests.register(expected, response);
+            sent = networkClient.send(msg.toString());
+            if (!sent) {
+                pendingRequests.unregister(response);
+            }
+        } finally {
+            requestLock.unlock();
+        }
+
+        if (!sent) {
+            response.completeExceptionally(new IOException("Failed to send " + msg.getCommand()));
+        }
+    }
+
+    /**
+     * Reads responses on the calling thread until the handshake step completes
+     * (no receiver runs before the handshake is done)
+     * @param result result of the step
+     * @param step step name for the log
+     * @return result of the step, false if it failed
+     */
+    private boolean awaitHandshake(CompletableFuture<Boolean> result, String step) {
+        while (!result.isDone()) {
+            String response = networkClient.receive();
+            if (response == null) {
+                pendingRequests.failAll(new IOException("No response from server"));
+                break;
+            }
+
+            ProtocolMessage msg = ProtocolMessage.parse(response);
+            if (msg == null) {
+                ClientMetrics.getInstance().parseFailed();
+                pendingRequests.failAll(new ProtocolException("Failed to parse server response"));
+                break;
+            }
+            if (!dispatchResponse(msg)) {
+                Logger.warning("Unexpected message from server during " + step + ": " + response);
+                pendingRequests.failAll(new ProtocolException("Unexpected response " + msg.getCommand()));
+                break;
+            }
+        }
+
+        try {
+            return result.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            Logger.error("Failed to " + step + ": " + cause.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Receives and processes a message from the server
      * @return received message or null
@@ -158,28 +452,88 @@ public class GameClient {
     public ProtocolMessage receiveMessage() {
         String response = networkClient.receive();
         if (response == null) {
+            if (!networkClient.isConnected()) {
+                pendingRequests.failAll(new IOException("Connection lost"));
+                events.close();
+            }
             return null;
         }
 
         ProtocolMessage msg = ProtocolMessage.parse(response);
         if (msg == null) {
+            ClientMetrics.getInstance().parseFailed();
             return null;
         }
 
         // Process certain messages automatically
         if ("GAME_STATE".equals(msg.getCommand())) {
             int newRound = Integer.parseInt(msg.getParameter(0));
-            yourScore = Integer.parseInt(msg.getParameter(1));
-            opponentScore = Integer.parseInt(msg.getParameter(2));
+            int newYourScore = Integer.parseInt(msg.getParameter(1));
+            int newOpponentScore = Integer.parseInt(msg.getParameter(2));
             String newRole = msg.getParameter(3);
 
-            currentRound = newRound;
-            currentRole = newRole;
+            update(current -> current.withGameState(newRound, newYourScore, newOpponentScore, newRole));
         }
 
+        if (isServerEvent(msg)) {
+            publishEvent(msg);
+        }
         return msg;
     }
 
+    /**
+     * Checks if a message is a game event sent by the server on its own (not a response)
+     */
+    public static boolean isServerEvent(ProtocolMessage msg) {
+        String cmd = msg.getCommand();
+        return cmd.equals("YOUR_TURN")
+            || cmd.equals("OPPONENT_ACTION")
+            || cmd.equals("ROUND_END")
+            || cmd.equals("GAME_END")
+            || cmd.equals("PLAYER_DISCONNECTED")
+            || cmd.equals("PLAYER_RECONNECTED")
+            || cmd.equals("OPPONENT_LEFT")
+            || cmd.equals("DEAL_CARDS")
+            || cmd.equals("GAME_STATE")
+            || cmd.equals("CARD");
+    }
+
+    /**
+     * Subscriber that must see every game event. If its buffer overflows, the
+     * connection is closed instead, so the session is resynchronized by a reconnect.
+     */
+    public interface LosslessSubscriber extends Flow.Subscriber<ProtocolMessage> {
+    }
+
+    /**
+     * Game events received by receiveMessage(), in the order they arrived.
+     * A subscriber gets events as it requests them. Events beyond its buffer
+     * (256) are dropped for that subscriber only - the reader never waits.
+     * A LosslessSubscriber gets no gaps: an overflow closes the connection.
+     * Completes when the connection is closed.
+     */
+    public Flow.Publisher<ProtocolMessage> getEvents() {
+        return events;
+    }
+
+    private void publishEvent(ProtocolMessage msg) {
+        try {
+            events.offer(msg, (subscriber, event) -> {
+                ClientMetrics.getInstance().serverEventDropped();
+                if (subscriber instanceof LosslessSubscriber) {
+                    // A missed game event would leave the client out of sync with the server
+                    Logger.error("Event subscriber is too slow, lost " + event.getCommand() + ", closing connection to resync");
+                    networkClient.disconnect();
+                } else {
+                    Logger.warning(() -> "Event subscriber is too slow, dropped " + event.getCommand());
+                }
+                return false;
+            });
+        } catch (IllegalStateException e) {
+            // Closed by a disconnect meanwhile
+        }
+    }
+
     /**
      * Sends a message without waiting for response
      * @param msg message to send
@@ -195,86 +549,92 @@ public class GameClient {
      * Disconnects from server
      */
     public void disconnect() {
-        if (state != ClientState.DISCONNECTED) {
+        if (getState() != ClientState.DISCONNECTED) {
             Logger.info("Disconnecting from server");
             networkClient.send(ProtocolMessage.disconnect().toString());
             networkClient.disconnect();
             setState(ClientState.DISCONNECTED);
         }
+        pendingRequests.failAll(new IOException("Disconnected"));
+        events.close();
     }
 
-    // Getters
+    // Getters (each reads the current snapshot)
 
     public ClientState getState() {
-        return state;
+        return session.get().getState();
     }
 
     public String getSessionId() {
-        return sessionId;
+        return session.get().getSessionId();
     }
 
     public NetworkClient getNetworkClient() {
         return networkClient;
     }
 
-    public List<String> getPlayerCards() {
-        return new ArrayList<>(playerCards);
+    /**
+     * @return own cards (immutable, same instance until the hand changes)
+     */
+    public Hand getPlayerCards() {
+        return session.get().getPlayerCards();
     }
 
-    public void clearPlayerCards() {
-        playerCards.clear();
+    /**
+     * Stores own cards of a new deal, opponent has the same number of hidden cards
+     */
+    public void setDealtCards(List<String> cards) {
+        update(current -> current.withDeal(cards));
     }
 
     public void addPlayerCard(String card) {
-        playerCards.add(card);
+        update(current -> current.withPlayerCard(card));
     }
 
-    public List<String> getOpponentCards() {
-        return new ArrayList<>(opponentCards);
+    /**
+     * @return revealed opponent cards (immutable, same instance until they change)
+     */
+    public Hand getOpponentCards() {
+        return session.get().getOpponentCards();
     }
 
     public void setOpponentCards(List<String> cards) {
-        this.opponentCards = new ArrayList<>(cards);
-    }
-
-    public void clearOpponentCards() {
-        opponentCards.clear();
+        update(current -> current.withOpponentCards(cards));
     }
 
     public int getOpponentCardCount() {
-        return opponentCardCount;
+        return session.get().getOpponentCardCount();
     }
 
-    public void setOpponentCardCount(int count) {
-        this.opponentCardCount = count;
+    /**
+     * Opponent took a card
+     */
+    public void incrementOpponentCardCount() {
+        update(current -> current.withOpponentCardCount(current.getOpponentCardCount() + 1));
     }
 
     public String getOpponentNickname() {
-        return opponentNickname;
+        return session.get().getOpponentNickname();
     }
 
     public String getCurrentRole() {
-        return currentRole;
+        return session.get().getCurrentRole();
     }
 
     public int getYourScore() {
-        return yourScore;
+        return session.get().getYourScore();
     }
 
     public int getOpponentScore() {
-        return opponentScore;
+        return session.get().getOpponentScore();
     }
 
     public int getCurrentRound() {
-        return currentRound;
-    }
-
-    public void setPlayerHandValue(int value) {
-        this.playerHandValue = value;
+        return session.get().getCurrentRound();
     }
 
-    public void setOpponentHandValue(int value) {
-        this.opponentHandValue = value;
+    public void setHandValues(int playerValue, int opponentValue) {
+        update(current -> current.withHandValues(playerValue, opponentValue));
     }
 
     public boolean isConnected() {
@@ -282,34 +642,28 @@ public class GameClient {
     }
 
     public void setState(ClientState newState) {
-        this.state = newState;
+        update(current -> current.withState(newState));
     }
 
-    public void setCurrentRoomId(String roomId) {
-        this.currentRoomId = roomId;
-    }
-
-    public void setOpponentNickname(String opponentNickname) {
-        this.opponentNickname = opponentNickname;
+    /**
+     * Joined a room (or left it with null)
+     */
+    public void enterRoom(String roomId, ClientState newState) {
+        update(current -> current.withCurrentRoomId(roomId).withState(newState));
     }
 
-    public void setCurrentRole(String role) {
-        this.currentRole = role;
+    /**
+     * Game started with the given role and opponent
+     */
+    public void startGame(String role, String opponentNickname) {
+        update(current -> current.withGameStart(role, opponentNickname));
     }
 
     /**
-     * Resets game state (cards, scores, round) for a new game
+     * Resets game state (cards, scores, round, room) for a new game and moves to the given state
      */
-    public void resetGameState() {
-        this.playerCards.clear();
-        this.opponentNickname = null;
-        this.currentRole = null;
-        this.yourScore = 0;
-        this.opponentScore = 0;
-        this.currentRound = 0;
-        this.currentRoomId = null;
-        this.playerHandValue = 0;
-        this.opponentHandValue = 0;
+    public void resetGameState(ClientState newState) {
+        update(current -> current.withGameReset(newState));
     }
 
     // Reconnect query methods
@@ -319,7 +673,7 @@ public class GameClient {
      * @return true if server asked whether to reconnect
      */
     public boolean hasPendingReconnectQuery() {
-        return hasPendingReconnectQuery;
+        return session.get().hasPendingReconnectQuery();
     }
 
     /**
@@ -327,7 +681,7 @@ public class GameClient {
      * @return room ID or null
      */
     public String getReconnectRoomId() {
-        return reconnectRoomId;
+        return session.get().getReconnectRoomId();
     }
 
     /**
@@ -335,99 +689,65 @@ public class GameClient {
      * @return opponent nickname or null
      */
     public String getReconnectOpponentNickname() {
-        return reconnectOpponentNickname;
+        return session.get().getReconnectOpponentNickname();
     }
 
     /**
-     * Accepts the reconnect query and rejoins the game
+     * Accepts the reconnect query and rejoins the game (handshake, blocks until answered)
      * @return true if successful
      */
     public boolean acceptReconnect() {
-        if (!hasPendingReconnectQuery) {
+        if (!hasPendingReconnectQuery()) {
             Logger.warning("acceptReconnect called with no pending query.");
             return false;
         }
-
-        // Send RECONNECT_ACCEPT
-        if (!networkClient.send(ProtocolMessage.reconnectAccept().toString())) {
-            Logger.error("Failed to send RECONNECT_ACCEPT.");
-            return false;
-        }
-
-        // Wait for OK response with session ID
-        String response = networkClient.receive();
-        if (response == null) {
-            Logger.error("No response from server after accepting reconnect.");
-            return false;
-        }
-
-        ProtocolMessage msg = ProtocolMessage.parse(response);
-        if (msg == null) {
-            Logger.error("Failed to parse server response after accepting reconnect.");
-            return false;
-        }
-
-        if (msg.isError()) {
-            Logger.error("Reconnect accept failed: " + msg.getErrorMessage());
-            hasPendingReconnectQuery = false;
-            return false;
-        }
-
-        if ("OK".equals(msg.getCommand()) && msg.getParameterCount() > 0) {
-            this.sessionId = msg.getParameter(0);
-            setState(ClientState.PLAYING);  // Reconnecting to game
-            this.hasPendingReconnectQuery = false;
-            Logger.info("Reconnected to game successfully");
-            return true;
-        }
-
-        Logger.warning("Unknown response from server after accepting reconnect: " + response);
-        return false;
+        return awaitHandshake(answerReconnectAsync(true), "accept reconnect");
     }
 
     /**
-     * Declines the reconnect query and starts fresh in lobby
+     * Declines the reconnect query and starts fresh in lobby (handshake, blocks until answered)
      * @return true if successful
      */
     public boolean declineReconnect() {
-        if (!hasPendingReconnectQuery) {
+        if (!hasPendingReconnectQuery()) {
             Logger.warning("declineReconnect called with no pending query.");
             return false;
         }
+        return awaitHandshake(answerReconnectAsync(false), "decline reconnect");
+    }
 
-        // Send RECONNECT_DECLINE
-        if (!networkClient.send(ProtocolMessage.reconnectDecline().toString())) {
-            Logger.error("Failed to send RECONNECT_DECLINE.");
-            return false;
-        }
-
-        // Wait for OK response with new session ID
-        String response = networkClient.receive();
-        if (response == null) {
-            Logger.error("No response from server after declining reconnect.");
-            return false;
-        }
+    /**
+     * Answers the reconnect query, the response is delivered to dispatchResponse()
+     * @param accept true to rejoin the game, false to start fresh in lobby
+     * @return future completed with true if the server confirmed with a new session ID
+     */
+    public CompletableFuture<Boolean> answerReconnectAsync(boolean accept) {
+        ClientState newState = accept ? ClientState.PLAYING : ClientState.LOBBY;
+        String action = accept ? "accepting" : "declining";
+
+        CompletableFuture<ProtocolMessage> response = expect(REQUEST_TIMEOUT_MS);
+        CompletableFuture<Boolean> result = response.thenApply(msg -> {
+            if (msg.isError()) {
+                Logger.error("Reconnect " + (accept ? "accept" : "decline") + " failed: " + msg.getErrorMessage());
+                update(SessionState::withoutReconnectQuery);
+                return false;
+            }
 
-        ProtocolMessage msg = ProtocolMessage.parse(response);
-        if (msg == null) {
-            Logger.error("Failed to parse server response after declining reconnect.");
-            return false;
-        }
+            if (msg.getParameterCount() > 0) {
+                String newSessionId = msg.getParameter(0);
+                update(current -> current.withLogin(current.getNickname(), newSessionId, newState));
+                applyServerFormats(msg);
+                if (accept) {
+                    Logger.info("Reconnected to game successfully");
+                }
+                return true;
+            }
 
-        if (msg.isError()) {
-            Logger.error("Reconnect decline failed: " + msg.getErrorMessage());
-            hasPendingReconnectQuery = false;
+            Logger.warning("Unknown response from server after " + action + " reconnect: " + msg);
             return false;
-        }
-
-        if ("OK".equals(msg.getCommand()) && msg.getParameterCount() > 0) {
-            this.sessionId = msg.getParameter(0);
-            setState(ClientState.LOBBY);
-            this.hasPendingReconnectQuery = false;
-            return true;
-        }
-
-        Logger.warning("Unknown response from server after declining reconnect: " + response);
-        return false;
+        });
+        sendRequest(accept ? ProtocolMessage.reconnectAccept() : ProtocolMessage.reconnectDecline(),
+                isCommand("OK"), response);
+        return result;
     }
 }
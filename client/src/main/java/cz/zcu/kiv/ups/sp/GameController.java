@@ -4,17 +4,32 @@ import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import cz.zcu.kiv.ups.sp.Logger;
 
 /**
@@ -28,6 +43,8 @@ public class GameController {
     @FXML private Button connectButton;
     @FXML private Button disconnectButton;
     @FXML private Label connectionStatus;
+    @FXML private ToggleButton perfToggle;
+    @FXML private Label perfOverlayLabel;
 
     @FXML private VBox lobbyPanel;
     @FXML private ListView<RoomInfo> roomListView;
@@ -51,6 +68,7 @@ public class GameController {
     @FXML private Label handValueLabel;
     @FXML private Button hitButton;
     @FXML private Button standButton;
+    @FXML private Label oddsLabel;
 
     @FXML private Label statusLabel;
 
@@ -59,19 +77,65 @@ public class GameController {
     @FXML private Label roundResultMessage;
 
     private GameClient gameClient;
-    private Thread messageReceiverThread;
-    private Thread messageProcessorThread;
-    private Thread waitForGameStartThread;
+    private final OddsEngine oddsEngine = new OddsEngine();
+    private PerformanceOverlay perfOverlay;
+    // Hands currently shown in the card rows (FX thread), null when a row must be rebuilt
+    private Hand renderedYourCards;
+    private Hand renderedOpponentCards;
+    // Connect pipeline in progress (null when not connecting)
+    private volatile TaskScope connectScope;
+    private static final long CONNECT_DEADLINE_MS = 15000;  // Resolve, connect, login and session detection
+    // Keeps round/game results on screen while later messages wait for display (FX thread)
+    private final PresentationScheduler presentation = new PresentationScheduler();
+    private static final Duration RESULT_DISPLAY_TIME = Duration.seconds(5);
+    // HIT/STAND/ACKs not delivered before the connection dropped
+    private final OutboundJournal outboundJournal = new OutboundJournal();
+    // ACKs are batched per FX pulse and sent without a thread each
+    private final AckSender ackSender = new AckSender(() -> gameClient, outboundJournal);
+    // Background work runs as named tasks on virtual threads
+    private final ClientExecutor clientExecutor = new ClientExecutor();
+    // Odds engine is not thread safe - its calls run one at a time in order
+    private final Executor oddsExecutor = clientExecutor.serialExecutor("odds-engine");
+    private static final long SHUTDOWN_TIMEOUT_MS = 500;
+    private volatile int receiverGeneration;
+    private volatile Thread messageProcessorThread;
+    private volatile int processorGeneration;
+    private volatile Thread waitForGameStartThread;
     private volatile boolean running = false;
-    private final BlockingQueue<ProtocolMessage> asyncMessageQueue = new LinkedBlockingQueue<>();
-    private final BlockingQueue<ProtocolMessage> syncResponseQueue = new LinkedBlockingQueue<>();
+    // Bounded inbound queues - game events keep order (policy from -Dups.queue.overflow),
+    // responses nobody waits for any more are the first to go
+    private static final int ASYNC_QUEUE_CAPACITY = 256;
+    private static final int SYNC_QUEUE_CAPACITY = 64;
+    private static final long QUEUE_BLOCK_TIMEOUT_MS = 2000;
+    private final InboundQueue<ProtocolMessage> asyncMessageQueue = new InboundQueue<>("Async message",
+            ASYNC_QUEUE_CAPACITY,
+            asyncOverflowPolicy(), QUEUE_BLOCK_TIMEOUT_MS);
+    private final InboundQueue<ProtocolMessage> syncResponseQueue = new InboundQueue<>("Sync response",
+            SYNC_QUEUE_CAPACITY, InboundQueue.OverflowPolicy.DROP_OLDEST, QUEUE_BLOCK_TIMEOUT_MS);
+
+    /**
+     * Reads -Dups.queue.overflow, an unknown value falls back to BLOCK
+     */
+    private static InboundQueue.OverflowPolicy asyncOverflowPolicy() {
+        String value = System.getProperty("ups.queue.overflow", "BLOCK");
+        try {
+            return InboundQueue.OverflowPolicy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            Logger.warning("Unknown ups.queue.overflow value '" + value + "', using BLOCK");
+            return InboundQueue.OverflowPolicy.BLOCK;
+        }
+    }
 
     // Reconnect state
     private volatile boolean isReconnecting = false;
     private volatile boolean manualDisconnect = false;
-    private static final int MAX_AUTO_RECONNECT_ATTEMPTS = 5;
-    private static final int SHORT_RECONNECT_DELAY_MS = 2000; // 2 seconds for short-term outage
-    private static final int LONG_RECONNECT_DELAY_MS = 5000; // 5 seconds for long-term outage
+    private static final int MAX_AUTO_RECONNECT_ATTEMPTS = 6;
+    private static final int RECONNECT_BASE_DELAY_MS = 500;  // First retry after 250-500 ms
+    private static final int RECONNECT_MAX_DELAY_MS = 8000;  // Cap, all attempts fit in server's 30 s reconnect window
+    private static final int RECONNECT_DETECTION_TIMEOUT_MS = 3000; // Deadline for server to show session state
+
+    // Copies of messages that decide reconnect detection (null when detection is not running)
+    private volatile BlockingQueue<ProtocolMessage> reconnectDetectionQueue;
 
     // Connection info for reconnect
     private String lastServerHost;
@@ -80,7 +144,7 @@ public class GameController {
 
     @FXML
     public void initialize() {
-        CardImageLoader.preloadImages();
+        // Card images are preloaded by the connect pipeline
         updateStatus("Ready to connect");
 
         // Bind managed property to visible property for all conditional containers
@@ -91,9 +155,43 @@ public class GameController {
         cardsContainer.managedProperty().bind(cardsContainer.visibleProperty());
         gameActionsContainer.managedProperty().bind(gameActionsContainer.visibleProperty());
         waitingForOpponentArea.managedProperty().bind(waitingForOpponentArea.visibleProperty());
+        oddsLabel.managedProperty().bind(oddsLabel.visibleProperty());
 
         // Setup custom cell factory for room list
         setupRoomListView();
+
+        ClientMetrics.getInstance().setInboundQueues(asyncMessageQueue, syncResponseQueue);
+        ClientMetrics.getInstance().setActiveTaskSource(clientExecutor::getActiveTaskCount);
+
+        setupPerformanceOverlay();
+    }
+
+    private void setupPerformanceOverlay() {
+        perfOverlay = new PerformanceOverlay(perfOverlayLabel,
+            () -> gameClient != null ? gameClient.getNetworkClient() : null);
+
+        // F3 toggles the overlay once the view is attached to a scene
+        perfOverlayLabel.sceneProperty().addListener((obs, oldScene, scene) -> {
+            if (scene != null) {
+                scene.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+                    if (event.getCode() == KeyCode.F3) {
+                        perfToggle.setSelected(!perfToggle.isSelected());
+                        handleTogglePerfOverlay();
+                        event.consume();
+                    }
+                });
+            }
+        });
+
+        if (Boolean.getBoolean("ups.perf")) {
+            perfToggle.setSelected(true);
+            handleTogglePerfOverlay();
+        }
+    }
+
+    @FXML
+    private void handleTogglePerfOverlay() {
+        perfOverlay.setShowing(perfToggle.isSelected());
     }
 
     private void setupRoomListView() {
@@ -184,161 +282,207 @@ public class GameController {
         lastNickname = nickname;
         manualDisconnect = false;
 
-        gameClient = new GameClient(host, port);
+        // A previous connect still in progress is abandoned
+        TaskScope previous = connectScope;
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        GameClient client = new GameClient(host, port, clientExecutor);
+        gameClient = client;
         updateStatus("Connecting to " + host + ":" + port + "...");
+        connectButton.setDisable(true);
+        disconnectButton.setDisable(false);  // Cancels the connect
 
-        new Thread(() -> {
-            try {
-                if (gameClient.connect()) {
-                    Platform.runLater(() -> updateStatus("Logging in as " + nickname + "..."));
-
-                    if (gameClient.login(nickname)) {
-                        // Check if server sent RECONNECT_QUERY
-                        if (gameClient.hasPendingReconnectQuery()) {
-
-                            String opponentName = gameClient.getReconnectOpponentNickname();
-
-                            // Show dialog on UI thread and wait for user decision
-                            boolean[] userChoice = new boolean[1];
-                            CountDownLatch dialogLatch = new CountDownLatch(1);
-
-                            Platform.runLater(() -> {
-                                Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
-                                alert.setTitle("Reconnect to Game");
-                                alert.setHeaderText("You were disconnected from a game");
-                                alert.setContentText("You were playing against " + opponentName + ".\n\nDo you want to reconnect and continue the game?");
-
-                                ButtonType yesButton = new ButtonType("Yes", ButtonBar.ButtonData.YES);
-                                ButtonType noButton = new ButtonType("No", ButtonBar.ButtonData.NO);
-                                alert.getButtonTypes().setAll(yesButton, noButton);
-
-                                Optional<ButtonType> result = alert.showAndWait();
-                                userChoice[0] = result.isPresent() && result.get() == yesButton;
-                                dialogLatch.countDown();
-                            });
-
-                            // Wait for user decision
-                            try {
-                                dialogLatch.await();
-                            } catch (InterruptedException e) {
-                                Logger.warning("Interrupted while waiting for user decision");
-                                return;
-                            }
-
-                            boolean reconnectAccepted = userChoice[0];
-
-                            boolean reconnectResult;
-                            if (reconnectAccepted) {
-                                reconnectResult = gameClient.acceptReconnect();
-                            } else {
-                                reconnectResult = gameClient.declineReconnect();
-                            }
-
-                            if (!reconnectResult) {
-                                Logger.error("Reconnect response failed");
-                                Platform.runLater(() -> {
-                                    showError("Failed to process reconnect response");
-                                    updateStatus("Reconnect failed");
-                                    gameClient = null;
-                                });
-                                return;
-                            }
-
-                            // Continue based on user choice
-                            if (reconnectAccepted) {
-                                // Start heartbeat and message receiver
-                                gameClient.getNetworkClient().startHeartbeat(() -> {
-                                    Platform.runLater(() -> {
-                                        Logger.warning("Heartbeat detected server unavailability");
-                                        handleServerUnavailable();
-                                    });
-                                });
-
-                                startMessageReceiver();
-
-                                Platform.runLater(() -> {
-                                    connectionStatus.setText("Connected");
-                                    connectionStatus.setStyle("-fx-text-fill: #4CAF50; -fx-font-weight: bold;");
-                                    connectButton.setDisable(true);
-                                    disconnectButton.setDisable(false);
-                                    serverHostField.setDisable(true);
-                                    serverPortField.setDisable(true);
-                                    nicknameField.setDisable(true);
-                                    updateStatus("Reconnecting to game...");
-
-                                    // Show game panel
-                                    lobbyPanel.setVisible(false);
-                                    gamePanel.setVisible(true);
-                                });
-
-                                // Start message processor to handle incoming game state
-                                startMessageProcessor();
-
-                                // Wait for game state messages (GAME_START, GAME_STATE, etc.)
-                                Platform.runLater(() -> {
-                                    waitForGameStart();  // This will process GAME_START and restore state
-                                });
-
-                                return;  // Exit early - reconnect flow complete
-                            } else {
-                                // Fall through to normal login flow below
-                            }
-                        }
+        TaskScope scope = new TaskScope("connect", CONNECT_DEADLINE_MS, clientExecutor);
+        connectScope = scope;
+        clientExecutor.start("connect", () -> runConnect(scope, client, host, port, nickname));
+    }
 
-                        // Start heartbeat to detect server unavailability
-                        gameClient.getNetworkClient().startHeartbeat(() -> {
-                            Platform.runLater(() -> {
-                                Logger.warning("Heartbeat detected server unavailability");
-                                handleServerUnavailable();
-                            });
-                        });
+    /**
+     * Connect and login pipeline. Every blocking step is a subtask of the scope, so the
+     * deadline, a failed step or the user's cancel releases the socket and threads at once.
+     * Card images are preloaded while the host is resolved and connected.
+     */
+    private void runConnect(TaskScope scope, GameClient client, String host, int port, String nickname) {
+        AtomicBoolean receiverStarted = new AtomicBoolean();
 
-                        // Start message receiver immediately after login!
-                        startMessageReceiver();
+        try (scope) {
+            scope.onCancel(() -> {
+                if (receiverStarted.get()) {
+                    stopMessageReceiver();
+                }
+                client.getNetworkClient().stopHeartbeat();
+                client.getNetworkClient().disconnect();  // Also aborts a connect in progress
+            });
 
-                        Platform.runLater(() -> {
-                            connectionStatus.setText("Connected");
-                            connectionStatus.setStyle("-fx-text-fill: #4CAF50; -fx-font-weight: bold;");
-                            connectButton.setDisable(true);
-                            disconnectButton.setDisable(false);
-                            serverHostField.setDisable(true);
-                            serverPortField.setDisable(true);
-                            nicknameField.setDisable(true);
-                            updateStatus("Connected as " + nickname);
-                        });
+            Future<Void> assets = scope.fork(() -> {
+                CardImageLoader.preloadImages();
+                return null;
+            });
+            InetAddress[] addresses = scope.join(scope.fork(client.getNetworkClient()::resolve));
 
-                        // Check if reconnect is detected
-                        handleReconnectDetection();
-                    } else {
-                        Logger.error("Login failed");
-                        Platform.runLater(() -> {
-                            showError("Login failed. Nickname may already be in use or server rejected the connection.");
-                            updateStatus("Login failed");
-                            gameClient = null;
-                        });
-                    }
-                } else {
-                    Logger.error("Connection failed");
-                    Platform.runLater(() -> {
-                        showError("Connection failed. Make sure the server is running at " + host + ":" + port);
-                        updateStatus("Connection failed");
-                        gameClient = null;
-                    });
+            if (!scope.join(scope.fork(() -> client.connect(addresses)))) {
+                Logger.error("Connection failed");
+                failConnect(client, "Connection failed. Make sure the server is running at " + host + ":" + port,
+                        "Connection failed");
+                return;
+            }
+
+            Platform.runLater(() -> updateStatus("Logging in as " + nickname + "..."));
+            if (!scope.join(scope.fork(() -> client.login(nickname)))) {
+                Logger.error("Login failed");
+                failConnect(client, "Login failed. Nickname may already be in use or server rejected the connection.",
+                        "Login failed");
+                return;
+            }
+
+            // Check if server sent RECONNECT_QUERY
+            boolean resumeGame = false;
+            if (client.hasPendingReconnectQuery()) {
+                boolean reconnectAccepted = scope.joinUntimed(askReconnect(client.getReconnectOpponentNickname()));
+                scope.restartDeadline();  // Time spent in the dialog does not count
+
+                boolean reconnectResult = scope.join(scope.fork(
+                        reconnectAccepted ? client::acceptReconnect : client::declineReconnect));
+                if (!reconnectResult) {
+                    Logger.error("Reconnect response failed");
+                    failConnect(client, "Failed to process reconnect response", "Reconnect failed");
+                    return;
                 }
-            } catch (Exception e) {
-                Logger.error("Connection error: " + e.getMessage());
-                e.printStackTrace();
+                resumeGame = reconnectAccepted;
+            }
+
+            // Cards are shown from now on
+            scope.join(assets);
+
+            // Start heartbeat to detect server unavailability
+            client.getNetworkClient().startHeartbeat(() -> {
                 Platform.runLater(() -> {
-                    showError("Connection error: " + e.getMessage());
-                    updateStatus("Connection error");
-                    gameClient = null;
+                    Logger.warning("Heartbeat detected server unavailability");
+                    handleServerUnavailable();
                 });
+            });
+
+            // Start message receiver immediately after login!
+            if (!resumeGame) {
+                armReconnectDetection();
+            }
+            receiverStarted.set(true);
+            startMessageReceiver();
+
+            boolean reconnecting = resumeGame;
+            Platform.runLater(() -> {
+                connectionStatus.setText("Connected");
+                connectionStatus.setStyle("-fx-text-fill: #4CAF50; -fx-font-weight: bold;");
+                connectButton.setDisable(true);
+                disconnectButton.setDisable(false);
+                serverHostField.setDisable(true);
+                serverPortField.setDisable(true);
+                nicknameField.setDisable(true);
+
+                if (reconnecting) {
+                    updateStatus("Reconnecting to game...");
+
+                    // Show game panel
+                    lobbyPanel.setVisible(false);
+                    gamePanel.setVisible(true);
+                } else {
+                    updateStatus("Connected as " + nickname);
+                }
+            });
+
+            if (resumeGame) {
+                // Start message processor to handle incoming game state
+                startMessageProcessor();
+
+                // Wait for game state messages (GAME_START, GAME_STATE, etc.)
+                Platform.runLater(this::waitForGameStart);  // This will process GAME_START and restore state
+            } else {
+                // Check if reconnect is detected
+                scope.join(scope.fork(() -> {
+                    handleReconnectDetection();
+                    return null;
+                }));
+            }
+
+            scope.succeed();
+        } catch (TimeoutException e) {
+            Logger.error("Connection timed out");
+            failConnect(client, "Connection timed out. Make sure the server is running at " + host + ":" + port,
+                    "Connection timed out");
+        } catch (CancellationException | InterruptedException e) {
+            Logger.info("Connect cancelled");
+            failConnect(client, null, "Connect cancelled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            String message = cause instanceof UnknownHostException
+                    ? "Unknown host " + host
+                    : "Connection error: " + cause.getMessage();
+            Logger.error(message);
+            failConnect(client, message, "Connection error");
+        } finally {
+            if (connectScope == scope) {
+                connectScope = null;
+            }
+        }
+    }
+
+    /**
+     * Asks the user whether to rejoin the interrupted game
+     * @param opponentName opponent of the interrupted game
+     * @return future completed with the user's decision
+     */
+    private CompletableFuture<Boolean> askReconnect(String opponentName) {
+        CompletableFuture<Boolean> decision = new CompletableFuture<>();
+
+        Platform.runLater(() -> {
+            Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+            alert.setTitle("Reconnect to Game");
+            alert.setHeaderText("You were disconnected from a game");
+            alert.setContentText("You were playing against " + opponentName + ".\n\nDo you want to reconnect and continue the game?");
+
+            ButtonType yesButton = new ButtonType("Yes", ButtonBar.ButtonData.YES);
+            ButtonType noButton = new ButtonType("No", ButtonBar.ButtonData.NO);
+            alert.getButtonTypes().setAll(yesButton, noButton);
+
+            Optional<ButtonType> result = alert.showAndWait();
+            decision.complete(result.isPresent() && result.get() == yesButton);
+        });
+
+        return decision;
+    }
+
+    /**
+     * Reports a failed or cancelled connect (the scope already released the connection)
+     * @param client client of the failed connect
+     * @param error error shown to the user, null for none
+     * @param status status bar text
+     */
+    private void failConnect(GameClient client, String error, String status) {
+        Platform.runLater(() -> {
+            if (error != null) {
+                showError(error);
             }
-        }).start();
+            updateStatus(status);
+
+            // Only if no newer connect replaced this one
+            if (gameClient == client) {
+                gameClient = null;
+                connectButton.setDisable(false);
+                disconnectButton.setDisable(true);
+            }
+        });
     }
 
     @FXML
     private void handleDisconnect() {
+        // Connect in progress - cancelling it releases everything
+        TaskScope scope = connectScope;
+        if (scope != null && scope.cancel()) {
+            return;
+        }
+
         // Mark as manual disconnect to prevent auto-reconnect
         manualDisconnect = true;
 
@@ -359,15 +503,20 @@ public class GameController {
         connectionStatus.setStyle("-fx-text-fill: #ff9800; -fx-font-weight: bold;");
 
         // Run disconnect in background thread to avoid UI freezing
-        new Thread(() -> {
-            stopMessageReceiver();
+        clientExecutor.start("disconnect", () -> {
+            outboundJournal.discard("disconnected by user");
+
+            // Disconnect first - closing the socket wakes up the blocked receiver
             if (gameClient != null) {
                 gameClient.getNetworkClient().stopHeartbeat();
                 gameClient.disconnect();
-                gameClient = null;
             }
+            stopMessageReceiver();
+            clientExecutor.cancelSessionTasks();
+            gameClient = null;
 
             Platform.runLater(() -> {
+                presentation.cancel();
                 alert.close();
                 connectionStatus.setText("Disconnected");
                 connectionStatus.setStyle("-fx-text-fill: #f44336; -fx-font-weight: bold;");
@@ -381,7 +530,7 @@ public class GameController {
                 gamePanel.setVisible(false);
                 updateStatus("Disconnected");
             });
-        }).start();
+        });
     }
 
     /**
@@ -393,7 +542,10 @@ public class GameController {
         }
 
 
-        // Stop message processing
+        // Close the dead connection so the blocked receiver exits, then stop message processing
+        if (gameClient != null) {
+            gameClient.getNetworkClient().disconnect();
+        }
         stopMessageReceiver();
 
         // Update UI - visible information
@@ -423,84 +575,28 @@ public class GameController {
 
         updateStatus("Refreshing room list...");
 
-        new Thread(() -> {
-            try {
-                // Send ROOM_LIST message (don't wait synchronously)
-                ProtocolMessage roomListMsg = ProtocolMessage.roomList();
-                if (!gameClient.sendMessage(roomListMsg)) {
-                    Platform.runLater(() -> {
-                        showError("Failed to send room list request");
-                        updateStatus("Failed to refresh rooms");
-                    });
-                    return;
-                }
-
-                // Wait for ROOMS response from queue
-                ProtocolMessage roomsResponse = waitForResponse("ROOMS", 5);
-
-                if (roomsResponse != null && roomsResponse.getCommand().equals("ERROR")) {
-                    Platform.runLater(() -> {
-                        showError("Cannot fetch rooms: " + roomsResponse.getErrorMessage());
-                        updateStatus("Failed to refresh rooms");
-                        roomListView.getItems().clear();
-                    });
-                    return;
-                }
-
-                if (roomsResponse == null || roomsResponse.getParameterCount() == 0) {
-                    Platform.runLater(() -> {
-                        updateStatus("No response from server");
-                        roomListView.getItems().clear();
-                    });
-                    return;
-                }
-
-                // VALIDATION: Get and validate room count
-                Integer roomCount = MessageValidator.validateRoomCount(roomsResponse.getParameter(0));
-                if (roomCount == null) {
-                    Platform.runLater(() -> {
-                        showError("Invalid room count from server");
-                        updateStatus("Invalid server response");
-                    });
-                    return;
-                }
-                List<RoomInfo> rooms = new ArrayList<>();
-
-                // Read each ROOM message from queue and parse to RoomInfo
-                for (int i = 0; i < roomCount; i++) {
-                    ProtocolMessage roomMsg = waitForResponse("ROOM", 5);
-                    if (roomMsg != null) {
-                        // Parse ROOM message to RoomInfo
-                        RoomInfo room = RoomInfo.parse(roomMsg.toString());
-                        if (room != null) {
-                            rooms.add(room);
-                        }
-                    }
+        gameClient.listRoomsAsync().whenCompleteAsync((rooms, error) -> {
+            if (error != null) {
+                Throwable cause = causeOf(error);
+                Logger.error("Error refreshing rooms: " + cause.getMessage());
+                roomListView.getItems().clear();
+                if (cause instanceof TimeoutException) {
+                    updateStatus("No response from server");
+                } else {
+                    showError("Cannot fetch rooms: " + cause.getMessage());
+                    updateStatus("Failed to refresh rooms");
                 }
+                return;
+            }
 
-                // Sort rooms by ID for consistent ordering
-                rooms.sort((r1, r2) -> r1.getId().compareTo(r2.getId()));
-
-                // Update UI
-                final List<RoomInfo> finalRooms = rooms;
-                Platform.runLater(() -> {
-                    roomListView.getItems().clear();
-                    if (!finalRooms.isEmpty()) {
-                        roomListView.getItems().addAll(finalRooms);
-                        updateStatus("Found " + finalRooms.size() + " room(s)");
-                    } else {
-                        updateStatus("No rooms available");
-                    }
-                });
-
-            } catch (Exception e) {
-                Logger.error("Error refreshing rooms: " + e.getMessage());
-                Platform.runLater(() -> {
-                    showError("Error refreshing rooms: " + e.getMessage());
-                    updateStatus("Failed to refresh rooms");
-                });
+            roomListView.getItems().clear();
+            if (!rooms.isEmpty()) {
+                roomListView.getItems().addAll(rooms);
+                updateStatus("Found " + rooms.size() + " room(s)");
+            } else {
+                updateStatus("No rooms available");
             }
-        }).start();
+        }, Platform::runLater);
     }
 
     @FXML
@@ -518,58 +614,25 @@ public class GameController {
 
         updateStatus("Creating room '" + roomName + "'...");
 
-        new Thread(() -> {
-            try {
-                // Send CREATE_ROOM message (don't wait synchronously)
-                ProtocolMessage createMsg = ProtocolMessage.createRoom(roomName);
-                if (!gameClient.sendMessage(createMsg)) {
-                    Platform.runLater(() -> {
-                        showError("Failed to send create room request");
-                        updateStatus("Failed to create room");
-                    });
-                    return;
-                }
-
-                // Wait for ROOM_CREATED response from queue
-                ProtocolMessage response = waitForResponse("ROOM_CREATED", 10);
-
-                if (response != null && response.getCommand().equals("ROOM_CREATED") && response.getParameterCount() > 0) {
-                    // Successfully created room!
-                    String roomId = response.getParameter(0);
-                    gameClient.setCurrentRoomId(roomId);
-                    gameClient.setState(GameClient.ClientState.IN_ROOM);
-
-                    Platform.runLater(() -> {
-                        updateStatus("Room created! Waiting for opponent...");
-                        showGame();
-                        gameInfoContainer.setVisible(false);
-                        cardsContainer.setVisible(false);
-                        gameActionsContainer.setVisible(false);
-                        waitingForOpponentArea.setVisible(true);
-                    });
-
-                    waitForGameStart();
-                } else if (response != null && response.getCommand().equals("ERROR")) {
-                    // Server returned error
-                    Platform.runLater(() -> {
-                        showError("Cannot create room: " + response.getErrorMessage());
-                        updateStatus("Failed to create room");
-                    });
-                } else {
-                    // Timeout
-                    Platform.runLater(() -> {
-                        showError("Failed to create room (timeout)");
-                        updateStatus("Failed to create room");
-                    });
-                }
-            } catch (Exception e) {
-                Logger.error("Error creating room: " + e.getMessage());
-                Platform.runLater(() -> {
-                    showError("Error creating room: " + e.getMessage());
-                    updateStatus("Error creating room");
-                });
+        gameClient.createRoomAsync(roomName).whenCompleteAsync((response, error) -> {
+            if (error != null) {
+                Throwable cause = causeOf(error);
+                Logger.error("Error creating room: " + cause.getMessage());
+                showError(cause instanceof TimeoutException
+                        ? "Failed to create room (timeout)"
+                        : "Error creating room: " + cause.getMessage());
+                updateStatus("Failed to create room");
+            } else if (response.isError()) {
+                // Server returned error
+                showError("Cannot create room: " + response.getErrorMessage());
+                updateStatus("Failed to create room");
+            } else {
+                // Successfully created room - the client already entered it
+                updateStatus("Room created! Waiting for opponent...");
+                showWaitingForOpponent();
+                waitForGameStart();
             }
-        }).start();
+        }, Platform::runLater);
     }
 
     /**
@@ -583,59 +646,37 @@ public class GameController {
 
         updateStatus("Joining room " + roomId + "...");
 
-        new Thread(() -> {
-            try {
-                // Send JOIN_ROOM message (don't wait synchronously)
-                ProtocolMessage joinMsg = ProtocolMessage.joinRoom(roomId);
-                if (!gameClient.sendMessage(joinMsg)) {
-                    Platform.runLater(() -> {
-                        showError("Failed to send join room request");
-                        updateStatus("Failed to join room");
-                    });
-                    return;
-                }
-
-                // Wait for JOINED response from queue
-                ProtocolMessage response = waitForResponse("JOINED", 10);
-
-                if (response != null && response.getCommand().equals("JOINED")) {
-                    // Successfully joined room!
-                    gameClient.setCurrentRoomId(roomId);
-                    gameClient.setState(GameClient.ClientState.IN_ROOM);
-
-                    Platform.runLater(() -> {
-                        updateStatus("Joined room! Waiting for game to start...");
-                        showGame();
-                        gameInfoContainer.setVisible(false);
-                        cardsContainer.setVisible(false);
-                        gameActionsContainer.setVisible(false);
-                        waitingForOpponentArea.setVisible(true);
-                    });
-
-                    waitForGameStart();
-                } else if (response != null && response.getCommand().equals("ERROR")) {
-                    // Server returned error
-                    Platform.runLater(() -> {
-                        showError("Cannot join room: " + response.getErrorMessage());
-                        updateStatus("Failed to join room");
-                    });
-                } else {
-                    // Timeout
-                    Platform.runLater(() -> {
-                        showError("Failed to join room (timeout)");
-                        updateStatus("Failed to join room");
-                    });
-                }
-            } catch (Exception e) {
-                Logger.error("Error joining room: " + e.getMessage());
-                Platform.runLater(() -> {
-                    showError("Error joining room: " + e.getMessage());
-                    updateStatus("Error joining room");
-                });
+        gameClient.joinRoomAsync(roomId).whenCompleteAsync((response, error) -> {
+            if (error != null) {
+                Throwable cause = causeOf(error);
+                Logger.error("Error joining room: " + cause.getMessage());
+                showError(cause instanceof TimeoutException
+                        ? "Failed to join room (timeout)"
+                        : "Error joining room: " + cause.getMessage());
+                updateStatus("Failed to join room");
+            } else if (response.isError()) {
+                // Server returned error
+                showError("Cannot join room: " + response.getErrorMessage());
+                updateStatus("Failed to join room");
+            } else {
+                // Successfully joined room - the client already entered it
+                updateStatus("Joined room! Waiting for game to start...");
+                showWaitingForOpponent();
+                waitForGameStart();
             }
-        }).start();
+        }, Platform::runLater);
     }
 
+    /**
+     * Shows the game panel with only the waiting-for-opponent area
+     */
+    private void showWaitingForOpponent() {
+        showGame();
+        gameInfoContainer.setVisible(false);
+        cardsContainer.setVisible(false);
+        gameActionsContainer.setVisible(false);
+        waitingForOpponentArea.setVisible(true);
+    }
 
     /**
      * FXML handler - player takes a card (HIT action).
@@ -650,52 +691,42 @@ public class GameController {
         standButton.setDisable(true);
         updateStatus("Requesting card...");
 
-        new Thread(() -> {
-            try {
-                // Send HIT message
-                ProtocolMessage hitMsg = ProtocolMessage.hit();
-                if (!gameClient.sendMessage(hitMsg)) {
-                    Platform.runLater(() -> {
-                        showError("Failed to send hit request");
-                        updateStatus("Failed to hit");
-                        hitButton.setDisable(false);
-                        standButton.setDisable(false);
-                    });
-                    return;
-                }
-
-                // Wait for OK response from queue
-                ProtocolMessage response = waitForResponse("OK", 5);
-
-                if (response != null && response.getCommand().equals("OK")) {
-                    Platform.runLater(() -> {
-                        updateStatus("Card incoming...");
-                    });
-                } else if (response != null && response.getCommand().equals("ERROR")) {
-                    Platform.runLater(() -> {
-                        showError("Server rejected HIT: " + response.getErrorMessage());
-                        updateStatus("Hit rejected");
-                        hitButton.setDisable(false);
-                        standButton.setDisable(false);
-                    });
-                } else {
-                    Platform.runLater(() -> {
-                        showError("Server did not respond to hit request");
-                        updateStatus("Hit failed");
-                        hitButton.setDisable(false);
-                        standButton.setDisable(false);
-                    });
-                }
-            } catch (Exception e) {
-                Logger.error("Error during hit: " + e.getMessage());
-                Platform.runLater(() -> {
-                    showError("Error during hit: " + e.getMessage());
-                    updateStatus("Hit error");
-                    hitButton.setDisable(false);
-                    standButton.setDisable(false);
-                });
+        GameClient client = gameClient;
+        int handSize = client.getPlayerCards().size();
+        client.hitAsync().whenCompleteAsync((response, error) -> {
+            if (error != null && !client.isConnected()) {
+                // Connection dropped before confirmation - decide after session restore
+                holdActionForReconnect(ProtocolMessage.hit(), handSize);
+            } else if (error != null) {
+                Throwable cause = causeOf(error);
+                Logger.error("Error during hit: " + cause.getMessage());
+                showError(cause instanceof TimeoutException
+                        ? "Server did not respond to hit request"
+                        : "Error during hit: " + cause.getMessage());
+                updateStatus("Hit failed");
+                hitButton.setDisable(false);
+                standButton.setDisable(false);
+            } else if (response.isError()) {
+                showError("Server rejected HIT: " + response.getErrorMessage());
+                updateStatus("Hit rejected");
+                hitButton.setDisable(false);
+                standButton.setDisable(false);
+            } else {
+                updateStatus("Card incoming...");
             }
-        }).start();
+        }, Platform::runLater);
+    }
+
+    /**
+     * Keeps an undelivered game action for replay after reconnect
+     */
+    private void holdActionForReconnect(ProtocolMessage action, int handSize) {
+        outboundJournal.hold(action, handSize);
+        Platform.runLater(() -> {
+            updateStatus("Connection lost - " + action.getCommand() + " will be sent after reconnect");
+            hitButton.setDisable(true);
+            standButton.setDisable(true);
+        });
     }
 
     /**
@@ -709,48 +740,30 @@ public class GameController {
         // Disable buttons immediately
         hitButton.setDisable(true);
         standButton.setDisable(true);
+        oddsLabel.setVisible(false);
         updateStatus("Standing...");
 
-        new Thread(() -> {
-            try {
-                // Send STAND message
-                ProtocolMessage standMsg = ProtocolMessage.stand();
-                if (!gameClient.sendMessage(standMsg)) {
-                    Platform.runLater(() -> {
-                        showError("Failed to send stand request");
-                        updateStatus("Failed to stand");
-                    });
-                    return;
-                }
-
-                // Wait for OK response from queue
-                ProtocolMessage response = waitForResponse("OK", 5);
-
-                if (response != null) {
-                    Platform.runLater(() -> {
-                        waitingArea.setVisible(true);
-                        updateStatus("Standing - waiting for opponent...");
-                    });
-                } else {
-                    Platform.runLater(() -> {
-                        showError("Server did not respond to stand request");
-                        updateStatus("Stand failed");
-                        // Re-enable buttons on error
-                        hitButton.setDisable(false);
-                        standButton.setDisable(false);
-                    });
-                }
-            } catch (Exception e) {
-                Logger.error("Error during stand: " + e.getMessage());
-                Platform.runLater(() -> {
-                    showError("Error during stand: " + e.getMessage());
-                    updateStatus("Stand error");
-                    // Re-enable buttons on error
-                    hitButton.setDisable(false);
-                    standButton.setDisable(false);
-                });
+        GameClient client = gameClient;
+        int handSize = client.getPlayerCards().size();
+        client.standAsync().whenCompleteAsync((response, error) -> {
+            if (error != null && !client.isConnected()) {
+                // Connection dropped before confirmation - decide after session restore
+                holdActionForReconnect(ProtocolMessage.stand(), handSize);
+            } else if (error != null) {
+                Throwable cause = causeOf(error);
+                Logger.error("Error during stand: " + cause.getMessage());
+                showError(cause instanceof TimeoutException
+                        ? "Server did not respond to stand request"
+                        : "Error during stand: " + cause.getMessage());
+                updateStatus("Stand failed");
+                // Re-enable buttons on error
+                hitButton.setDisable(false);
+                standButton.setDisable(false);
+            } else {
+                waitingArea.setVisible(true);
+                updateStatus("Standing - waiting for opponent...");
             }
-        }).start();
+        }, Platform::runLater);
     }
 
     @FXML
@@ -762,52 +775,28 @@ public class GameController {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            new Thread(() -> {
-                try {
-                    if (gameClient != null) {
-                        // Send LEAVE_ROOM message (don't stop receiver yet!)
-                        ProtocolMessage leaveMsg = ProtocolMessage.leaveRoom();
-                        if (!gameClient.sendMessage(leaveMsg)) {
-                            Platform.runLater(() -> {
-                                showError("Failed to send leave room request");
-                            });
-                            return;
-                        }
+            GameClient client = gameClient;
+            if (client == null) {
+                return;
+            }
 
-                        // Wait for OK response from queue
-                        ProtocolMessage response = waitForResponse("OK", 5);
-
-                        if (response != null && response.getCommand().equals("OK")) {
-                            // Server confirmed - update state
-                            gameClient.setState(GameClient.ClientState.LOBBY);
-                            gameClient.setCurrentRoomId(null);
-
-                            Platform.runLater(this::showLobby);
-                        } else if (response != null && response.getCommand().equals("ERROR")) {
-                            // Error (probably not in room - server restarted)
-                            gameClient.resetGameState();
-                            gameClient.setState(GameClient.ClientState.LOBBY);
-                            gameClient.setCurrentRoomId(null);
-
-                            Platform.runLater(() -> {
-                                resetGameUI();
-                                showLobby();
-                            });
-                        } else {
-                            // Timeout
-                            Platform.runLater(() -> {
-                                showError("Server did not respond to leave request");
-                                handleDisconnect();
-                            });
-                        }
-                    }
-                } catch (Exception e) {
-                    Logger.error("Error leaving game: " + e.getMessage());
-                    Platform.runLater(() -> {
-                        showError("Error leaving game: " + e.getMessage());
-                    });
+            client.leaveRoomAsync().whenCompleteAsync((response, error) -> {
+                if (error != null && causeOf(error) instanceof IOException) {
+                    showError("Failed to send leave room request");
+                } else if (error != null) {
+                    // Timeout
+                    showError("Server did not respond to leave request");
+                    handleDisconnect();
+                } else if (!response.isError()) {
+                    // Server confirmed - the client is back in lobby
+                    showLobby();
+                } else {
+                    // Error (probably not in room - server restarted)
+                    client.resetGameState(GameClient.ClientState.LOBBY);
+                    resetGameUI();
+                    showLobby();
                 }
-            }).start();
+            }, Platform::runLater);
         }
     }
 
@@ -817,7 +806,7 @@ public class GameController {
             waitForGameStartThread.interrupt();
         }
 
-        waitForGameStartThread = new Thread(() -> {
+        waitForGameStartThread = clientExecutor.startSessionTask("wait-game-start", () -> {
 
             // Wait for GAME_START from queue
             ProtocolMessage response = waitForResponse("GAME_START");
@@ -846,11 +835,10 @@ public class GameController {
                 }
 
 
-                gameClient.setCurrentRole(role);
-                gameClient.setOpponentNickname(opponentNick);
-                gameClient.setState(GameClient.ClientState.PLAYING);
+                gameClient.startGame(role, opponentNick);
 
                 Platform.runLater(() -> {
+                    oddsExecutor.execute(oddsEngine::newGame);
                     waitingForOpponentArea.setVisible(false);
                     gameInfoContainer.setVisible(true);
                     cardsContainer.setVisible(true);
@@ -871,8 +859,6 @@ public class GameController {
                 });
             }
         });
-        waitForGameStartThread.setDaemon(true);
-        waitForGameStartThread.start();
     }
 
     private void startMessageReceiver() {
@@ -880,34 +866,52 @@ public class GameController {
         asyncMessageQueue.clear();
         syncResponseQueue.clear();
 
-        messageReceiverThread = new Thread(() -> {
-            while (running && gameClient != null && gameClient.isConnected()) {
+        GameClient client = gameClient;
+        if (client == null) {
+            return;
+        }
+
+        // Block in read until a message arrives - the receiver is stopped by closing
+        // the socket or exits when it finds it was replaced by a newer receiver
+        client.getNetworkClient().setReadTimeout(0);
+
+        // A replaced receiver sees a newer generation and exits
+        int generation = ++receiverGeneration;
+        client.getEvents().subscribe(new GameEventSubscriber(client, generation));
+        clientExecutor.startSessionTask("message-receiver", () -> {
+            while (running && receiverGeneration == generation && client.isConnected()) {
                 try {
-                    ProtocolMessage msg = gameClient.receiveMessage();
+                    ProtocolMessage msg = client.receiveMessage();
                     if (msg == null) {
-                        if (!running) break;
-                        // Connection might be lost - but continue to next iteration
-                        // If truly disconnected, isConnected() will be false
+                        // Unparseable line, or connection closed (loop condition ends it)
                         continue;
                     }
+                    if (!running || receiverGeneration != generation) {
+                        break;
+                    }
 
 
-                    // Ignore PONG messages - they are sent by server in response to heartbeat PING
-                    // but heartbeat no longer waits for them (it only checks if send() succeeds)
+                    // Reconnect detection watches for the first decisive message
+                    BlockingQueue<ProtocolMessage> detectionQueue = reconnectDetectionQueue;
+                    if (detectionQueue != null && isReconnectDecisive(msg)) {
+                        detectionQueue.offer(msg);
+                    }
+
+                    // Ignore PONG - NetworkClient already consumed it for RTT and liveness
+                    // (heartbeat declares the connection dead when a PING goes unanswered)
                     if ("PONG".equals(msg.getCommand())) {
                         continue;
                     }
 
-                    // Route message to appropriate queue based on type
-                    if (isAsyncMessage(msg)) {
-                        if (!asyncMessageQueue.offer(msg)) {
-                            Logger.warning("Async message queue is full, dropping message: " + msg);
-                        }
-                    } else {
-                        // Synchronous response (OK, ROOM_CREATED, JOINED, ROOMS, ROOM, etc.)
-                        if (!syncResponseQueue.offer(msg)) {
-                            Logger.warning("Sync response queue is full, dropping message: " + msg);
-                        }
+                    // Game events already went to the event subscribers
+                    if (GameClient.isServerEvent(msg)) {
+                        continue;
+                    }
+
+                    // Responses to requests complete their futures (OK, ROOM_CREATED, JOINED, ROOMS, ROOM, ERROR),
+                    // unrequested responses such as GAME_START go to the sync queue
+                    if (!client.dispatchResponse(msg)) {
+                        syncResponseQueue.offer(msg);
                     }
 
                 } catch (Exception e) {
@@ -921,12 +925,10 @@ public class GameController {
             }
 
             // Check if we exited because connection was lost
-            if (running && !manualDisconnect && (gameClient == null || !gameClient.isConnected())) {
+            if (running && receiverGeneration == generation && !manualDisconnect && !client.isConnected()) {
                 Platform.runLater(this::attemptReconnect);
             }
         });
-        messageReceiverThread.setDaemon(true);
-        messageReceiverThread.start();
 
         // Don't start message processor yet - wait for reconnect detection to complete
         // It will be started after we know if this is a reconnect or normal login
@@ -936,121 +938,83 @@ public class GameController {
      * Processes asynchronous messages from the queue (YOUR_TURN, ROUND_END, etc.)
      */
     private void startMessageProcessor() {
-        messageProcessorThread = new Thread(() -> {
-            while (running) {
+        int generation = ++processorGeneration;
+        messageProcessorThread = clientExecutor.startSessionTask("message-processor", () -> {
+            while (running && processorGeneration == generation) {
                 try {
-                    // Only read from async queue - no need to check message type or put back
-                    ProtocolMessage msg = asyncMessageQueue.poll(500, TimeUnit.MILLISECONDS);
-
-                    if (msg == null) {
-                        continue;
-                    }
+                    // Only read from async queue - blocks until a message arrives, stopped by interrupt
+                    ProtocolMessage msg = asyncMessageQueue.take();
 
+                    // Results stay on screen via the presentation scheduler, processing never waits
                     handleMessage(msg);
-
-                    // After ROUND_END, wait before processing next message
-                    // This keeps cards visible while showing round result
-                    if (msg.getCommand().equals("ROUND_END")) {
-                        Thread.sleep(5000);
-
-                        // After delay, hide round result
-                        // Cards will be updated when DEAL_CARDS is processed
-                        Platform.runLater(() -> {
-                            roundResultArea.setVisible(false);
-                        });
-                    }
-                    // After GAME_END, wait 5s then return to lobby
-                    else if (msg.getCommand().equals("GAME_END")) {
-                        Thread.sleep(5000);
-
-                        // After delay, reset everything and return to lobby
-                        Platform.runLater(() -> {
-                            roundResultArea.setVisible(false);
-                            resetGameUI();
-
-                            // Reset game client state
-                            if (gameClient != null) {
-                                gameClient.resetGameState();
-                                gameClient.setState(GameClient.ClientState.LOBBY);
-                            }
-
-                            showLobby();
-                            updateStatus("Returned to lobby");
-                        });
-                    }
                 } catch (InterruptedException e) {
                     break;
                 }
-            }
-        });
-        messageProcessorThread.setDaemon(true);
-        messageProcessorThread.start();
-    }
-
-    /**
-     * Checks if message is asynchronous (game event) or synchronous response
-     */
-    private boolean isAsyncMessage(ProtocolMessage msg) {
-        String cmd = msg.getCommand();
-        return cmd.equals("YOUR_TURN")
-            || cmd.equals("OPPONENT_ACTION")
-            || cmd.equals("ROUND_END")
-            || cmd.equals("GAME_END")
-            || cmd.equals("PLAYER_DISCONNECTED")
-            || cmd.equals("PLAYER_RECONNECTED")
-            || cmd.equals("OPPONENT_LEFT")
-            || cmd.equals("DEAL_CARDS")
-            || cmd.equals("GAME_STATE")
-            || cmd.equals("CARD");
+            }
+        });
     }
 
     /**
-     * Waits for a specific response from the sync response queue
-     * @param expectedCommand Expected command (e.g., "OK", "ROOM_CREATED")
-     * @param timeoutSeconds Timeout in seconds
-     * @return The message or null if timeout
+     * Moves game events of one receiver generation into the async queue for the message processor.
+     * Runs on the publisher's delivery thread, so a full queue never blocks the network reader.
+     * Lossless - if the publisher's buffer overflows while this waits, GameClient closes the connection.
      */
-    private ProtocolMessage waitForResponse(String expectedCommand, int timeoutSeconds) {
-        long deadline = System.currentTimeMillis() + (timeoutSeconds * 1000L);
-
-        while (System.currentTimeMillis() < deadline && !Thread.currentThread().isInterrupted()) {
-            try {
-                long remaining = deadline - System.currentTimeMillis();
-                if (remaining <= 0) break;
-
-                // Read from sync response queue only
-                ProtocolMessage msg = syncResponseQueue.poll(
-                    Math.min(remaining, 1000),
-                    TimeUnit.MILLISECONDS
-                );
+    private class GameEventSubscriber implements GameClient.LosslessSubscriber {
+        private final GameClient client;
+        private final int generation;
+        private Flow.Subscription subscription;
+
+        GameEventSubscriber(GameClient client, int generation) {
+            this.client = client;
+            this.generation = generation;
+        }
 
-                if (msg == null) {
-                    continue;
-                }
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
 
-                if (msg.getCommand().equals(expectedCommand)) {
-                    return msg;
-                }
+        @Override
+        public void onNext(ProtocolMessage msg) {
+            if (!running || receiverGeneration != generation) {
+                // Receiver was stopped or replaced
+                subscription.cancel();
+                return;
+            }
 
-                // Check for ERROR - this indicates the command failed
-                if (msg.getCommand().equals("ERROR")) {
-                    // Return the ERROR message so caller can handle it
-                    return msg;
+            try {
+                if (!asyncMessageQueue.offer(msg)) {
+                    // Rejected (DISCONNECT) or BLOCK timed out - a lost event desyncs the game,
+                    // so treat it as a broken connection and resync by reconnecting
+                    Logger.error("Inbound queue overflow, closing connection");
+                    subscription.cancel();
+                    client.getNetworkClient().disconnect();
+                    return;
                 }
-
-                // Not the expected message - could be a different sync response
-                // This might happen if multiple threads are waiting for different responses
-                // Put it back and wait a bit
-                syncResponseQueue.offer(msg);
-                Thread.sleep(50);
-
             } catch (InterruptedException e) {
-                Thread.currentThread().interrupt(); // Preserve interrupt status
-                return null;
+                subscription.cancel();
+                return;
             }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            Logger.error("Game event stream failed: " + error);
+        }
+
+        @Override
+        public void onComplete() {
+            // Connection closed - the receiver handles reconnect
         }
+    }
 
-        return null;
+    /**
+     * Gets the failure behind a CompletionException of a request
+     */
+    private static Throwable causeOf(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
 
     /**
@@ -1061,44 +1025,42 @@ public class GameController {
      * @return The message or null if interrupted
      */
     private ProtocolMessage waitForResponse(String expectedCommand) {
-
-        while (!Thread.currentThread().isInterrupted()) {
-            try {
-                // Read from sync response queue only
-                ProtocolMessage msg = syncResponseQueue.poll(1000, TimeUnit.MILLISECONDS);
-
-                if (msg == null) {
-                    continue;
-                }
-
-                if (msg.getCommand().equals(expectedCommand)) {
-                    return msg;
-                }
-
-                // Check for ERROR - this indicates the command failed
-                if (msg.getCommand().equals("ERROR")) {
-                    // Return the ERROR message so caller can handle it
-                    return msg;
-                }
-
-                // Not the expected message - could be a different sync response
-                // This might happen if multiple threads are waiting for different responses
-                // Put it back and wait a bit
-                syncResponseQueue.offer(msg);
-                Thread.sleep(50);
-
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt(); // Preserve interrupt status
-                return null;
-            }
+        try {
+            return takeResponse(expectedCommand, Long.MAX_VALUE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Preserve interrupt status
+            return null;
         }
+    }
+
+    /**
+     * Removes the first sync response that is the expected command or ERROR,
+     * blocking until one arrives. Other responses stay in the queue in order.
+     * @param expectedCommand expected command
+     * @param deadlineNanos System.nanoTime() deadline, Long.MAX_VALUE for none
+     * @return the message or null on timeout
+     */
+    private ProtocolMessage takeResponse(String expectedCommand, long deadlineNanos) throws InterruptedException {
+        // ERROR indicates the command failed - return it so caller can handle it
+        return syncResponseQueue.pollMatching(
+                msg -> msg.getCommand().equals(expectedCommand) || msg.getCommand().equals("ERROR"),
+                deadlineNanos);
+    }
 
-        return null;
+    /**
+     * Computes the delay before a reconnect attempt - exponential backoff with
+     * random jitter, so clients dropped at the same moment do not reconnect together
+     * @param attempt attempt number starting at 1
+     * @return delay in milliseconds, between half and full backoff
+     */
+    private static long reconnectDelay(int attempt) {
+        long backoff = Math.min(RECONNECT_MAX_DELAY_MS, (long) RECONNECT_BASE_DELAY_MS << Math.min(attempt - 1, 16));
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
     }
 
     /**
      * Attempts to automatically reconnect to server.
-     * Uses exponential backoff (2s->5s) and max 5 attempts.
+     * Uses jittered exponential backoff (0.5s->8s) and max 6 attempts.
      * On success, restores session using session ID.
      */
     private void attemptReconnect() {
@@ -1108,13 +1070,14 @@ public class GameController {
 
         isReconnecting = true;
 
-        new Thread(() -> {
+        clientExecutor.start("reconnect", () -> {
             int attempts = 0;
             boolean reconnected = false;
+            long reconnectStart = System.nanoTime();
 
             while (attempts < MAX_AUTO_RECONNECT_ATTEMPTS && !reconnected && !manualDisconnect) {
                 attempts++;
-                int delay = attempts <= 3 ? SHORT_RECONNECT_DELAY_MS : LONG_RECONNECT_DELAY_MS;
+                long delay = reconnectDelay(attempts);
 
                 final int currentAttempt = attempts;
                 Platform.runLater(() -> {
@@ -1134,14 +1097,21 @@ public class GameController {
                 }
 
                 // Create new client and attempt to reconnect
-                GameClient newClient = new GameClient(lastServerHost, lastServerPort);
+                ClientMetrics.getInstance().reconnectAttempted();
+                ClientEvents.ReconnectAttempt attemptEvent = new ClientEvents.ReconnectAttempt();
+                attemptEvent.begin();
+                String outcome = "connect-failed";
+                GameClient newClient = new GameClient(lastServerHost, lastServerPort, clientExecutor);
 
                 // Try to reconnect with session ID
                 String sessionIdToRestore = (gameClient != null) ? gameClient.getSessionId() : null;
 
                 if (newClient.connect()) {
+                    outcome = "login-failed";
                     if (newClient.login(lastNickname, sessionIdToRestore)) {
+                        outcome = "success";
                         reconnected = true;
+                        ClientMetrics.getInstance().reconnectSucceeded(System.nanoTime() - reconnectStart);
 
                         // Replace old client with new one
                         gameClient = newClient;
@@ -1159,6 +1129,7 @@ public class GameController {
                         stopMessageReceiver();
 
                         // Restart message receiver
+                        armReconnectDetection();
                         startMessageReceiver();
 
                         // Restart heartbeat to continue monitoring server availability
@@ -1170,6 +1141,13 @@ public class GameController {
                         handleReconnectDetection();
                     }
                 }
+
+                attemptEvent.end();
+                if (attemptEvent.shouldCommit()) {
+                    attemptEvent.attempt = attempts;
+                    attemptEvent.outcome = outcome;
+                    attemptEvent.commit();
+                }
             }
 
             if (!reconnected && !manualDisconnect) {
@@ -1184,98 +1162,124 @@ public class GameController {
             }
 
             isReconnecting = false;
-        }).start();
+        });
     }
 
     /**
-     * Detects whether this is a reconnection to an existing game or a fresh start after server restart.
-     * Waits 500ms to check for GAME_START or PLAYER_DISCONNECTED messages in queues, then either
-     * restores the game state or resets to lobby accordingly.
+     * Starts collecting messages for reconnect detection.
+     * Must be called before the message receiver starts so no decisive message is missed.
      */
-    private void handleReconnectDetection() {
-        new Thread(() -> {
-            try {
-                // Wait for potential messages indicating reconnect
-                Thread.sleep(500);
-
-                // Check sync queue for GAME_START
-                ProtocolMessage gameStart = syncResponseQueue.poll();
+    private void armReconnectDetection() {
+        reconnectDetectionQueue = new LinkedBlockingQueue<>();
+    }
 
-                // Check async queue for PLAYER_DISCONNECTED (means reconnect but opponent disconnected)
-                ProtocolMessage playerDisconnected = asyncMessageQueue.poll();
+    /**
+     * Checks if a message decides where the session continues after login
+     */
+    private boolean isReconnectDecisive(ProtocolMessage msg) {
+        String cmd = msg.getCommand();
+        return cmd.equals("GAME_START")
+            || cmd.equals("GAME_STATE")
+            || cmd.equals("PLAYER_DISCONNECTED")
+            || cmd.equals("PONG");
+    }
 
-                if (gameStart != null && gameStart.getCommand().equals("GAME_START")) {
-                    syncResponseQueue.offer(gameStart);
+    /**
+     * Detects whether the server restored a game after login.
+     *
+     * The server sends the session state (GAME_START/GAME_STATE or PLAYER_DISCONNECTED)
+     * right after the login response, so a PING is sent and the first decisive message
+     * wins: game state means resume, PONG means nothing was restored (lobby).
+     * Messages stay in their queues - detection only sees copies.
+     */
+    private void handleReconnectDetection() {
+        BlockingQueue<ProtocolMessage> detectionQueue = reconnectDetectionQueue;
+        if (detectionQueue == null) {
+            armReconnectDetection();
+            detectionQueue = reconnectDetectionQueue;
+        }
+        final BlockingQueue<ProtocolMessage> decisiveMessages = detectionQueue;
 
-                    // Start message processor now
-                    startMessageProcessor();
+        clientExecutor.startSessionTask("reconnect-detection", () -> {
+            try {
+                // PONG is answered after any state the server restores for this session
+                if (gameClient != null) {
+                    gameClient.sendMessage(ProtocolMessage.ping());
+                }
 
-                    Platform.runLater(() -> {
-                        lobbyPanel.setVisible(false);
-                        gamePanel.setVisible(true);
-                        waitForGameStart();
-                    });
+                ProtocolMessage decisive = decisiveMessages.poll(RECONNECT_DETECTION_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                String decision = decisive != null ? decisive.getCommand() : "TIMEOUT";
 
-                    // Put back PLAYER_DISCONNECTED if found
-                    if (playerDisconnected != null) {
-                        asyncMessageQueue.offer(playerDisconnected);
-                    }
-                    return;
-                }
+                switch (decision) {
+                    case "GAME_START":
+                    case "GAME_STATE":
+                        // Game resumed - GAME_START is picked up by waitForGameStart
+                        startMessageProcessor();
 
-                if (playerDisconnected != null && playerDisconnected.getCommand().equals("PLAYER_DISCONNECTED")) {
-                    asyncMessageQueue.offer(playerDisconnected);
+                        Platform.runLater(() -> {
+                            lobbyPanel.setVisible(false);
+                            gamePanel.setVisible(true);
+                            waitForGameStart();
+                        });
+                        break;
 
-                    // Start message processor now
-                    startMessageProcessor();
+                    case "PLAYER_DISCONNECTED":
+                        startMessageProcessor();
 
-                    Platform.runLater(() -> {
-                        lobbyPanel.setVisible(false);
-                        gamePanel.setVisible(true);
-                        // PLAYER_DISCONNECTED handler will show waitingForOpponentArea
-                    });
-                    return;
-                }
+                        Platform.runLater(() -> {
+                            lobbyPanel.setVisible(false);
+                            gamePanel.setVisible(true);
+                            // PLAYER_DISCONNECTED handler will show waitingForOpponentArea
+                        });
+                        break;
 
-                // Put back any messages we took
-                if (gameStart != null) {
-                    syncResponseQueue.offer(gameStart);
-                }
-                if (playerDisconnected != null) {
-                    asyncMessageQueue.offer(playerDisconnected);
+                    default:
+                        if (decisive == null) {
+                            Logger.warning("No response from server during reconnect detection, continuing in lobby");
+                        }
+                        outboundJournal.discard("no game restored");
+                        resumeInLobby();
+                        break;
                 }
-
-                // No reconnect - server restarted, reset state and show lobby
-                // Reset game client state (server restarted)
-                boolean wasInGame = false;
-                if (gameClient != null) {
-                    wasInGame = (gameClient.getState() == GameClient.ClientState.IN_ROOM
-                            || gameClient.getState() == GameClient.ClientState.PLAYING);
-                    gameClient.resetGameState();
-                    gameClient.setState(GameClient.ClientState.LOBBY);
-                    gameClient.setCurrentRoomId(null);
+            } catch (InterruptedException e) {
+                Logger.warning("Interrupted while waiting for reconnect detection");
+            } finally {
+                if (reconnectDetectionQueue == decisiveMessages) {
+                    reconnectDetectionQueue = null;
                 }
+            }
+        });
+    }
 
-                // Start message processor now
-                startMessageProcessor();
+    /**
+     * No game was restored - server restarted, reset state and show lobby
+     */
+    private void resumeInLobby() {
+        // Reset game client state (server restarted)
+        boolean wasInGame = false;
+        if (gameClient != null) {
+            GameClient.ClientState previousState = gameClient.getState();
+            wasInGame = (previousState == GameClient.ClientState.IN_ROOM
+                    || previousState == GameClient.ClientState.PLAYING);
+            gameClient.resetGameState(GameClient.ClientState.LOBBY);
+        }
 
-                final boolean showServerRestartMessage = wasInGame;
-                Platform.runLater(() -> {
-                    resetGameUI();
-                    showLobby();
+        // Start message processor now
+        startMessageProcessor();
 
-                    // Inform user if they were in a game (server restarted)
-                    if (showServerRestartMessage) {
-                        showAlert("Server Restarted",
-                                "The server has restarted.\n\n" +
-                                        "Your previous game has been terminated.\n" +
-                                        "You have been returned to the lobby.");
-                    }
-                });
-            } catch (InterruptedException e) {
-                Logger.warning("Interrupted while waiting for reconnect detection");
+        final boolean showServerRestartMessage = wasInGame;
+        Platform.runLater(() -> {
+            resetGameUI();
+            showLobby();
+
+            // Inform user if they were in a game (server restarted)
+            if (showServerRestartMessage) {
+                showAlert("Server Restarted",
+                        "The server has restarted.\n\n" +
+                                "Your previous game has been terminated.\n" +
+                                "You have been returned to the lobby.");
             }
-        }).start();
+        });
     }
 
     /**
@@ -1311,30 +1315,37 @@ public class GameController {
 
     private void stopMessageReceiver() {
         running = false;
+        receiverGeneration++;
+        processorGeneration++;
 
-        if (messageReceiverThread != null) {
-            messageReceiverThread.interrupt();
-        }
+        // The receiver is not interrupted - interrupting a virtual thread blocked in read
+        // closes the socket. It exits without routing once it sees the stop, or when the
+        // socket is closed. Nothing is joined, stale tasks see the newer generation.
         if (messageProcessorThread != null) {
             messageProcessorThread.interrupt();
         }
         if (waitForGameStartThread != null && waitForGameStartThread.isAlive()) {
             waitForGameStartThread.interrupt();
         }
+    }
 
-        try {
-            if (messageReceiverThread != null) {
-                messageReceiverThread.join(2000);
-            }
-            if (messageProcessorThread != null) {
-                messageProcessorThread.join(2000);
-            }
-            if (waitForGameStartThread != null) {
-                waitForGameStartThread.join(2000);
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    /**
+     * Releases the connection and stops all background tasks (application exit)
+     */
+    public void shutdown() {
+        manualDisconnect = true;
+        TaskScope scope = connectScope;
+        if (scope != null) {
+            scope.cancel();
+        }
+
+        GameClient client = gameClient;
+        if (client != null) {
+            client.getNetworkClient().stopHeartbeat();
+            client.disconnect();
         }
+        stopMessageReceiver();
+        clientExecutor.shutdown(SHUTDOWN_TIMEOUT_MS);
     }
 
     /**
@@ -1345,187 +1356,248 @@ public class GameController {
      * @param msg Message to process
      */
     private void handleMessage(ProtocolMessage msg) {
+        long postedNanos = System.nanoTime();
         Platform.runLater(() -> {
-            String cmd = msg.getCommand();
+            ClientEvents.MessageHandled event = new ClientEvents.MessageHandled();
+            event.begin();
+            long dispatchDelay = System.nanoTime() - postedNanos;
 
-            switch (cmd) {
-                case "YOUR_TURN":
-                    handleYourTurn(msg);
-                    break;
+            if (isPresentedInOrder(msg)) {
+                presentation.runOrDefer(() -> dispatchMessage(msg));
+            } else {
+                dispatchMessage(msg);
+            }
 
-                case "OPPONENT_ACTION":
-                    handleOpponentAction(msg);
-                    break;
+            event.end();
+            if (event.shouldCommit()) {
+                event.command = msg.getCommand();
+                event.dispatchDelay = dispatchDelay;
+                event.commit();
+            }
+        });
+    }
 
-                case "ROUND_END":
-                    handleRoundEnd(msg);
-                    break;
+    /**
+     * Checks if a message updates the game display and must wait while a result is shown.
+     * Disconnects, opponent changes and errors are shown immediately.
+     */
+    private boolean isPresentedInOrder(ProtocolMessage msg) {
+        String cmd = msg.getCommand();
+        return !cmd.equals("PLAYER_DISCONNECTED")
+            && !cmd.equals("PLAYER_RECONNECTED")
+            && !cmd.equals("OPPONENT_LEFT")
+            && !cmd.equals("ERROR");
+    }
 
-                case "GAME_END":
-                    handleGameEnd(msg);
-                    break;
+    /**
+     * Calls the handler of a server event (FX thread)
+     */
+    private void dispatchMessage(ProtocolMessage msg) {
+        String cmd = msg.getCommand();
 
-                case "PLAYER_DISCONNECTED":
-                    String disconnectedPlayer = msg.getParameter(0);
+        switch (cmd) {
+            case "YOUR_TURN":
+                handleYourTurn(msg);
+                break;
 
-                    Platform.runLater(() -> {
-                        // Reset game state completely and stay in room
-                        if (gameClient != null) {
-                            gameClient.resetGameState();
-                            gameClient.setState(GameClient.ClientState.IN_ROOM);
-                        }
+            case "OPPONENT_ACTION":
+                outboundJournal.discard("turn is over");
+                handleOpponentAction(msg);
+                break;
 
-                        // Clear game display completely
-                        yourCardsBox.getChildren().clear();
-                        handValueLabel.setText("(Value: 0)");
-                        opponentCardsBox.getChildren().clear();
-                        opponentHandValueLabel.setText("(Value: 0)");
-                        hitButton.setDisable(true);
-                        standButton.setDisable(true);
-                        waitingArea.setVisible(false);
-                        roundResultArea.setVisible(false);
-
-                        // Hide game info and show waiting for opponent area
-                        gameInfoContainer.setVisible(false);
-                        cardsContainer.setVisible(false);
-                        gameActionsContainer.setVisible(false);
-                        waitingForOpponentArea.setVisible(true);
-
-                        updateStatus("Opponent disconnected. Waiting for opponent to reconnect or new opponent...");
-                        showAlert("Opponent Disconnected",
-                                 disconnectedPlayer + " has disconnected from the game.\n\n" +
-                                 "The system will wait for them to reconnect.\n" +
-                                 "If they don't reconnect, a new opponent may join.");
-
-                        waitForGameStart();
-                    });
-                    break;
+            case "ROUND_END":
+                outboundJournal.discard("round is over");
+                handleRoundEnd(msg);
 
-                case "PLAYER_RECONNECTED":
-                    String reconnectedPlayer = msg.getParameter(0);
-                    Platform.runLater(() -> {
-                        updateStatus("Opponent " + reconnectedPlayer + " has reconnected. Resuming game...");
-                    });
-                    break;
+                // Keep cards visible while showing round result, next deal waits for it
+                presentation.hold(RESULT_DISPLAY_TIME, () -> roundResultArea.setVisible(false));
+                break;
 
-                case "OPPONENT_LEFT":
-                    // VALIDATION: Validate opponent nickname
-                    if (!MessageValidator.validateParameterCount(msg, 2)) {
-                        showError("Invalid OPPONENT_LEFT message from server");
-                        break;
+            case "GAME_END":
+                outboundJournal.discard("game is over");
+                handleGameEnd(msg);
+
+                // Show final result, then reset everything and return to lobby
+                presentation.hold(RESULT_DISPLAY_TIME, () -> {
+                    roundResultArea.setVisible(false);
+                    resetGameUI();
+
+                    // Reset game client state
+                    if (gameClient != null) {
+                        gameClient.resetGameState(GameClient.ClientState.LOBBY);
                     }
 
-                    String leftPlayer = msg.getParameter(0);
-                    String reason = msg.getParameter(1);
-                    Platform.runLater(() -> {
-                        // Reset game state completely and stay in room
-                        if (gameClient != null) {
-                            gameClient.resetGameState();
-                            gameClient.setState(GameClient.ClientState.IN_ROOM);
-                        }
+                    showLobby();
+                    updateStatus("Returned to lobby");
+                });
+                break;
 
-                        // Clear game display completely
-                        yourCardsBox.getChildren().clear();
-                        handValueLabel.setText("(Value: 0)");
-                        opponentCardsBox.getChildren().clear();
-                        opponentHandValueLabel.setText("(Value: 0)");
-                        hitButton.setDisable(true);
-                        standButton.setDisable(true);
-                        waitingArea.setVisible(false);
-                        roundResultArea.setVisible(false);
-
-                        // Hide game info and show waiting for opponent area
-                        gameInfoContainer.setVisible(false);
-                        cardsContainer.setVisible(false);
-                        gameActionsContainer.setVisible(false);
-                        waitingForOpponentArea.setVisible(true);
-
-                        String reasonText = reason.equals("declined") ? "declined to reconnect" : "timed out";
-                        updateStatus("Opponent left. Waiting for new opponent...");
-                        showAlert("Opponent Left",
-                                leftPlayer + " has " + reasonText + ".\n\n" +
-                                "Waiting for a new opponent to join...");
-
-                        waitForGameStart();
-                    });
-                    break;
+            case "PLAYER_DISCONNECTED":
+                outboundJournal.discard("game was reset");
+                presentation.cancel();
+                String disconnectedPlayer = msg.getParameter(0);
 
-                case "ERROR":
-                    showError("Server error: " + msg.getErrorMessage());
-                    break;
+                Platform.runLater(() -> {
+                    // Reset game state completely and stay in room
+                    if (gameClient != null) {
+                        gameClient.resetGameState(GameClient.ClientState.IN_ROOM);
+                    }
 
-                case "GAME_STATE":
-                    updateGameInfo();
+                    // Clear game display completely
+                    clearCardRows();
+                    handValueLabel.setText("(Value: 0)");
+                    opponentHandValueLabel.setText("(Value: 0)");
+                    hitButton.setDisable(true);
+                    standButton.setDisable(true);
+                    waitingArea.setVisible(false);
+                    roundResultArea.setVisible(false);
 
-                    // Send ACK
-                    new Thread(ProtocolMessage::ackGameState).start();
-                    break;
+                    // Hide game info and show waiting for opponent area
+                    gameInfoContainer.setVisible(false);
+                    cardsContainer.setVisible(false);
+                    gameActionsContainer.setVisible(false);
+                    waitingForOpponentArea.setVisible(true);
 
-                case "DEAL_CARDS":
-                    // VALIDATION: Validate card count
-                    Integer cardCount = MessageValidator.validateCardCount(msg.getParameter(0));
-                    if (cardCount == null) {
-                        showError("Invalid card count from server");
-                        break;
-                    }
+                    updateStatus("Opponent disconnected. Waiting for opponent to reconnect or new opponent...");
+                    showAlert("Opponent Disconnected",
+                             disconnectedPlayer + " has disconnected from the game.\n\n" +
+                             "The system will wait for them to reconnect.\n" +
+                             "If they don't reconnect, a new opponent may join.");
 
-                    // VALIDATION: Check we have enough parameters for all cards
-                    if (!MessageValidator.validateParameterCount(msg, cardCount + 1)) {
-                        showError("Not enough card parameters from server");
-                        break;
-                    }
+                    waitForGameStart();
+                });
+                break;
 
-                    // Store cards and update UI
-                    gameClient.clearPlayerCards();
-                    gameClient.clearOpponentCards();
-
-                    // VALIDATION: Validate each card format before adding
-                    boolean allCardsValid = true;
-                    for (int i = 0; i < cardCount; i++) {
-                        String cardStr = msg.getParameter(i + 1);
-                        if (!MessageValidator.validateCardFormat(cardStr)) {
-                            showError("Invalid card format from server: " + cardStr);
-                            allCardsValid = false;
-                            break;
-                        }
-                        gameClient.addPlayerCard(cardStr);
-                    }
+            case "PLAYER_RECONNECTED":
+                String reconnectedPlayer = msg.getParameter(0);
+                Platform.runLater(() -> {
+                    updateStatus("Opponent " + reconnectedPlayer + " has reconnected. Resuming game...");
+                });
+                break;
 
-                    if (!allCardsValid) {
-                        break;
+            case "OPPONENT_LEFT":
+                // VALIDATION: Validate opponent nickname
+                if (!MessageValidator.validateParameterCount(msg, 2)) {
+                    showError("Invalid OPPONENT_LEFT message from server");
+                    break;
+                }
+
+                String leftPlayer = msg.getParameter(0);
+                String reason = msg.getParameter(1);
+                presentation.cancel();
+                Platform.runLater(() -> {
+                    // Reset game state completely and stay in room
+                    if (gameClient != null) {
+                        gameClient.resetGameState(GameClient.ClientState.IN_ROOM);
                     }
 
-                    // Opponent gets same number of cards (hidden)
-                    gameClient.setOpponentCardCount(cardCount);
-                    updateYourCards();
-                    updateOpponentCardsWithBacks();
-                    // Hide round results and show waiting area (will be hidden if YOUR_TURN arrives)
+                    // Clear game display completely
+                    clearCardRows();
+                    handValueLabel.setText("(Value: 0)");
+                    opponentHandValueLabel.setText("(Value: 0)");
+                    hitButton.setDisable(true);
+                    standButton.setDisable(true);
+                    waitingArea.setVisible(false);
                     roundResultArea.setVisible(false);
-                    waitingArea.setVisible(true);
-                    updateStatus("Cards dealt!");
 
-                    // Send ACK
-                    new Thread(ProtocolMessage::ackDealCards).start();
+                    // Hide game info and show waiting for opponent area
+                    gameInfoContainer.setVisible(false);
+                    cardsContainer.setVisible(false);
+                    gameActionsContainer.setVisible(false);
+                    waitingForOpponentArea.setVisible(true);
+
+                    String reasonText = reason.equals("declined") ? "declined to reconnect" : "timed out";
+                    updateStatus("Opponent left. Waiting for new opponent...");
+                    showAlert("Opponent Left",
+                            leftPlayer + " has " + reasonText + ".\n\n" +
+                            "Waiting for a new opponent to join...");
+
+                    waitForGameStart();
+                });
+                break;
+
+            case "ERROR":
+                showError("Server error: " + msg.getErrorMessage());
+                break;
+
+            case "GAME_STATE":
+                updateGameInfo();
+
+                // Send ACK
+                ackSender.ack(ProtocolMessage.ackGameState());
+                break;
+
+            case "DEAL_CARDS":
+                // VALIDATION: Validate card count
+                Integer cardCount = MessageValidator.validateCardCount(msg.getParameter(0));
+                if (cardCount == null) {
+                    showError("Invalid card count from server");
+                    break;
+                }
+
+                // VALIDATION: Check we have enough parameters for all cards
+                if (!MessageValidator.validateParameterCount(msg, cardCount + 1)) {
+                    showError("Not enough card parameters from server");
                     break;
+                }
 
-                case "CARD":
-                    // VALIDATION: Validate card format
-                    String card = msg.getParameter(0);
-                    if (!MessageValidator.validateCardFormat(card)) {
-                        showError("Invalid card format from server: " + card);
+                // VALIDATION: Validate each card format before storing
+                List<String> dealtCards = new ArrayList<>(cardCount);
+                boolean allCardsValid = true;
+                for (int i = 0; i < cardCount; i++) {
+                    String cardStr = msg.getParameter(i + 1);
+                    if (!MessageValidator.validateCardFormat(cardStr)) {
+                        showError("Invalid card format from server: " + cardStr);
+                        allCardsValid = false;
                         break;
                     }
+                    dealtCards.add(cardStr);
+                }
 
-                    // Store card and update UI
-                    gameClient.addPlayerCard(card);
-                    updateYourCards();
-                    updateStatus("Received a card");
+                if (!allCardsValid) {
                     break;
+                }
+
+                // Store cards and update UI - opponent gets same number of cards (hidden)
+                gameClient.setDealtCards(dealtCards);
+                String dealRole = gameClient.getCurrentRole();
+                oddsExecutor.execute(() -> {
+                    oddsEngine.newDeal(dealtCards, cardCount);
+                    oddsEngine.evaluate(dealRole);  // Precompute before YOUR_TURN
+                });
+                updateYourCards();
+                updateOpponentCardsWithBacks();
+                // Hide round results and show waiting area (will be hidden if YOUR_TURN arrives)
+                roundResultArea.setVisible(false);
+                waitingArea.setVisible(true);
+                updateStatus("Cards dealt!");
 
-                default:
+                // Send ACK
+                ackSender.ack(ProtocolMessage.ackDealCards());
+                break;
+
+            case "CARD":
+                // VALIDATION: Validate card format
+                String card = msg.getParameter(0);
+                if (!MessageValidator.validateCardFormat(card)) {
+                    showError("Invalid card format from server: " + card);
                     break;
-            }
-        });
+                }
+
+                // Store card and update UI
+                gameClient.addPlayerCard(card);
+                String cardRole = gameClient.getCurrentRole();
+                oddsExecutor.execute(() -> {
+                    oddsEngine.addPlayerCard(card);
+                    oddsEngine.evaluate(cardRole);  // Precompute before YOUR_TURN
+                });
+                updateYourCards();
+                updateStatus("Received a card");
+                break;
+
+            default:
+                break;
+        }
     }
 
     private void handleYourTurn(ProtocolMessage msg) {
@@ -1534,6 +1606,44 @@ public class GameController {
         waitingArea.setVisible(false);
         updateStatus("Your turn! Choose Hit or Stand");
         updateGameInfo();
+
+        // Still our turn after a session restore - replay the action the connection lost
+        if (outboundJournal.hasPendingAction() && gameClient != null) {
+            ProtocolMessage replay = outboundJournal.takeReplayableAction(gameClient.getPlayerCards().size());
+            if (replay != null) {
+                if (replay.getCommand().equals("HIT")) {
+                    handleHit();
+                } else {
+                    handleStand();
+                }
+                return;
+            }
+        }
+
+        updateOdds();
+    }
+
+    /**
+     * Shows bust probability and expected value of HIT/STAND for current hand
+     */
+    private void updateOdds() {
+        if (gameClient == null) return;
+
+        String role = gameClient.getCurrentRole();
+        oddsExecutor.execute(() -> {
+            OddsEngine.Odds odds = oddsEngine.evaluate(role);
+            Platform.runLater(() -> {
+                // Turn may be over already
+                if (hitButton.isDisable()) return;
+
+                oddsLabel.setText(String.format("Bust on hit: %.0f%% | EV hit %+.2f / stand %+.2f -> %s",
+                        odds.getBustProbability() * 100,
+                        odds.getHitExpectedValue(),
+                        odds.getStandExpectedValue(),
+                        odds.shouldHit() ? "HIT" : "STAND"));
+                oddsLabel.setVisible(true);
+            });
+        });
     }
 
     private void handleOpponentAction(ProtocolMessage msg) {
@@ -1558,7 +1668,8 @@ public class GameController {
                 break;
             case "HIT":
                 // Opponent drew a card, increment count and update display
-                gameClient.setOpponentCardCount(gameClient.getOpponentCardCount() + 1);
+                gameClient.incrementOpponentCardCount();
+                oddsExecutor.execute(oddsEngine::opponentHit);
                 updateOpponentCardsWithBacks();
                 updateStatus("Opponent took a card");
                 break;
@@ -1599,19 +1710,24 @@ public class GameController {
 
 
         // Store values in GameClient (from server)
-        gameClient.setPlayerHandValue(yourTotalInt);
-        gameClient.setOpponentHandValue(opponentTotalInt);
+        gameClient.setHandValues(yourTotalInt, opponentTotalInt);
 
         // Parse opponent cards if available (parameter 4)
+        List<String> revealedCards = null;
         if (msg.getParameterCount() >= 5) {
             String opponentCardsStr = msg.getParameter(4);
             if (opponentCardsStr != null && !opponentCardsStr.isEmpty()) {
                 List<String> opponentCards = Arrays.asList(opponentCardsStr.split(","));
                 gameClient.setOpponentCards(opponentCards);
+                revealedCards = opponentCards;
                 // Reveal opponent's cards
                 updateOpponentCardsRevealed();
             }
         }
+        List<String> roundCards = gameClient.getPlayerCards();
+        List<String> roundOpponentCards = revealedCards;
+        oddsExecutor.execute(() -> oddsEngine.roundEnd(roundCards, roundOpponentCards));
+        oddsLabel.setVisible(false);
 
         String message = "Your total: " + yourTotal + " | Opponent total: " + opponentTotal;
 
@@ -1639,7 +1755,7 @@ public class GameController {
         waitingArea.setVisible(false);
 
         // Send ACK
-        new Thread(ProtocolMessage::ackRoundEnd).start();
+        ackSender.ack(ProtocolMessage.ackRoundEnd());
 
         // Result area will be hidden when DEAL_CARDS arrives (after server delay)
     }
@@ -1681,7 +1797,7 @@ public class GameController {
         updateStatus("Game ended. Returning to lobby...");
 
         // Send ACK
-        new Thread(ProtocolMessage::ackGameEnd).start();
+        ackSender.ack(ProtocolMessage.ackGameEnd());
 
         // GAME_END will be handled by message processor for delay and cleanup
     }
@@ -1689,11 +1805,12 @@ public class GameController {
     private void updateGameInfo() {
         if (gameClient == null) return;
 
-        roundLabel.setText(String.valueOf(gameClient.getCurrentRound()));
-        yourScoreLabel.setText(String.valueOf(gameClient.getYourScore()));
-        opponentScoreLabel.setText(String.valueOf(gameClient.getOpponentScore()));
-        roleLabel.setText(gameClient.getCurrentRole());
-        opponentNameLabel.setText(gameClient.getOpponentNickname());
+        SessionState session = gameClient.getSession();
+        roundLabel.setText(String.valueOf(session.getCurrentRound()));
+        yourScoreLabel.setText(String.valueOf(session.getYourScore()));
+        opponentScoreLabel.setText(String.valueOf(session.getOpponentScore()));
+        roleLabel.setText(session.getCurrentRole());
+        opponentNameLabel.setText(session.getOpponentNickname());
 
         updateYourCards();
     }
@@ -1704,16 +1821,35 @@ public class GameController {
     private void updateGameInfoOnly() {
         if (gameClient == null) return;
 
-        roundLabel.setText(String.valueOf(gameClient.getCurrentRound()));
-        yourScoreLabel.setText(String.valueOf(gameClient.getYourScore()));
-        opponentScoreLabel.setText(String.valueOf(gameClient.getOpponentScore()));
-        roleLabel.setText(gameClient.getCurrentRole());
-        opponentNameLabel.setText(gameClient.getOpponentNickname());
+        SessionState session = gameClient.getSession();
+        roundLabel.setText(String.valueOf(session.getCurrentRound()));
+        yourScoreLabel.setText(String.valueOf(session.getYourScore()));
+        opponentScoreLabel.setText(String.valueOf(session.getOpponentScore()));
+        roleLabel.setText(session.getCurrentRole());
+        opponentNameLabel.setText(session.getOpponentNickname());
     }
 
     private void updateYourCards() {
-        yourCardsBox.getChildren().clear();
-        List<String> cards = gameClient.getPlayerCards();
+        ClientEvents.CardRowUpdate event = new ClientEvents.CardRowUpdate();
+        event.begin();
+        renderYourCards();
+        commitCardRowUpdate(event, "player", yourCardsBox);
+    }
+
+    private void renderYourCards() {
+        Hand cards = gameClient.getPlayerCards();
+        if (cards == renderedYourCards) {
+            return;  // Hand did not change
+        }
+
+        // A hand that only got new cards keeps the views of the cards already shown
+        int firstNew = 0;
+        if (cards.extendsHand(renderedYourCards)) {
+            firstNew = renderedYourCards.size();
+        } else {
+            yourCardsBox.getChildren().clear();
+        }
+        renderedYourCards = cards;
 
         if (cards.isEmpty()) {
             handValueLabel.setText("(Value: 0)");
@@ -1722,7 +1858,8 @@ public class GameController {
 
         // Calculate card size based on available space
         // We want cards to scale with window size
-        for (String card : cards) {
+        for (int i = firstNew; i < cards.size(); i++) {
+            String card = cards.get(i);
             ImageView cardView = new ImageView(CardImageLoader.getCardImage(card));
 
             // Bind card height to scene height for proportional scaling
@@ -1753,7 +1890,15 @@ public class GameController {
      * Updates opponent cards display with card backs (hidden cards)
      */
     private void updateOpponentCardsWithBacks() {
+        ClientEvents.CardRowUpdate event = new ClientEvents.CardRowUpdate();
+        event.begin();
+        renderOpponentCardsWithBacks();
+        commitCardRowUpdate(event, "opponent-hidden", opponentCardsBox);
+    }
+
+    private void renderOpponentCardsWithBacks() {
         opponentCardsBox.getChildren().clear();
+        renderedOpponentCards = null;
         int cardCount = gameClient.getOpponentCardCount();
 
         if (cardCount == 0) {
@@ -1788,8 +1933,19 @@ public class GameController {
      * Updates opponent cards display with actual cards (revealed after round)
      */
     private void updateOpponentCardsRevealed() {
+        ClientEvents.CardRowUpdate event = new ClientEvents.CardRowUpdate();
+        event.begin();
+        renderOpponentCardsRevealed();
+        commitCardRowUpdate(event, "opponent-revealed", opponentCardsBox);
+    }
+
+    private void renderOpponentCardsRevealed() {
+        Hand cards = gameClient.getOpponentCards();
+        if (cards == renderedOpponentCards) {
+            return;  // Already showing these cards
+        }
         opponentCardsBox.getChildren().clear();
-        List<String> cards = gameClient.getOpponentCards();
+        renderedOpponentCards = cards;
 
         if (cards.isEmpty()) {
             opponentHandValueLabel.setText("(Value: 0)");
@@ -1823,6 +1979,25 @@ public class GameController {
         opponentHandValueLabel.setText("(Value: " + handValue + ")");
     }
 
+    /**
+     * Clears both card rows, the next render builds them from scratch
+     */
+    private void clearCardRows() {
+        yourCardsBox.getChildren().clear();
+        opponentCardsBox.getChildren().clear();
+        renderedYourCards = null;
+        renderedOpponentCards = null;
+    }
+
+    private void commitCardRowUpdate(ClientEvents.CardRowUpdate event, String row, HBox box) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.row = row;
+            event.cards = box.getChildren().size();
+            event.commit();
+        }
+    }
+
     /**
      * Calculates the total value of cards in hand
      */
@@ -1867,45 +2042,19 @@ public class GameController {
      * Card format: "BARVA-HODNOTA" (e.g., "SRDCE-KRAL")
      */
     private int getCardValue(String card) {
-        if (card == null || !card.contains("-")) {
-            return 0;
-        }
-
-        String[] parts = card.split("-");
-        if (parts.length < 2) {
-            return 0;
-        }
-
-        String rank = parts[1];
-
-        switch (rank) {
-            case "SEDM":
-                return 7;
-            case "OSM":
-                return 8;
-            case "DEVET":
-                return 9;
-            case "DESET":
-                return 10;
-            case "SPODEK":
-                return 1;
-            case "SVRSEK":
-                return 1;
-            case "KRAL":
-                return 2;
-            case "ESO":
-                return 11;
-            default:
-                return 0;
-        }
+        return Cards.value(card);
     }
 
     /**
      * Resets all game UI elements to initial state
      */
     private void resetGameUI() {
+        // Pending result presentation no longer applies
+        presentation.cancel();
+
         // Clear cards
         yourCardsBox.getChildren().clear();
+        renderedYourCards = null;
         handValueLabel.setText("(Value: 0)");
 
         // Reset labels
@@ -1918,6 +2067,7 @@ public class GameController {
         // Disable buttons
         hitButton.setDisable(true);
         standButton.setDisable(true);
+        oddsLabel.setVisible(false);
 
         // Hide areas
         waitingArea.setVisible(false);
@@ -1938,6 +2088,7 @@ public class GameController {
         lobbyPanel.setVisible(false);
         gamePanel.setVisible(true);
         yourCardsBox.getChildren().clear();
+        renderedYourCards = null;
         gameInfoContainer.setVisible(false);
         cardsContainer.setVisible(false);
         gameActionsContainer.setVisible(false);
@@ -0,0 +1,89 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable hand of cards, safe to share between threads.
+ *
+ * plus() returns a new hand and leaves this one unchanged. Appending usually
+ * reuses the backing array - the first hand to append into a free slot claims
+ * it, other hands built on the same prefix get a copy - so dealing card by card
+ * does not copy the hand each time. Reading allocates nothing.
+ */
+public final class Hand extends AbstractList<String> implements RandomAccess {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    public static final Hand EMPTY = new Hand(new String[INITIAL_CAPACITY], 0, new AtomicInteger());
+
+    private final String[] cards;
+    private final int size;
+    // Number of claimed slots of the backing array, shared by all hands using it
+    private final AtomicInteger claimed;
+
+    private Hand(String[] cards, int size, AtomicInteger claimed) {
+        this.cards = cards;
+        this.size = size;
+        this.claimed = claimed;
+    }
+
+    /**
+     * Creates a hand of the given cards
+     */
+    public static Hand of(List<String> cards) {
+        if (cards instanceof Hand) {
+            return (Hand) cards;
+        }
+        if (cards.isEmpty()) {
+            return EMPTY;
+        }
+
+        String[] copy = new String[Math.max(INITIAL_CAPACITY, cards.size())];
+        for (int i = 0; i < cards.size(); i++) {
+            copy[i] = cards.get(i);
+        }
+        return new Hand(copy, cards.size(), new AtomicInteger(cards.size()));
+    }
+
+    /**
+     * Returns a hand with one more card
+     * @param card card to add
+     */
+    public Hand plus(String card) {
+        if (size < cards.length && claimed.compareAndSet(size, size + 1)) {
+            // Free slot right after this hand - share the backing array
+            cards[size] = card;
+            return new Hand(cards, size + 1, claimed);
+        }
+
+        String[] copy = new String[Math.max(INITIAL_CAPACITY, cards.length * 2)];
+        System.arraycopy(cards, 0, copy, 0, size);
+        copy[size] = card;
+        return new Hand(copy, size + 1, new AtomicInteger(size + 1));
+    }
+
+    /**
+     * Checks if this hand is the given hand with zero or more cards appended,
+     * without comparing the cards (only hands built by plus() are recognized)
+     * @param prefix earlier hand
+     */
+    public boolean extendsHand(Hand prefix) {
+        return prefix != null && (prefix.size == 0 || prefix.cards == cards) && prefix.size <= size;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        return cards[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
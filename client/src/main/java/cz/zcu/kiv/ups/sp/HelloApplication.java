@@ -8,14 +8,24 @@ import javafx.stage.Stage;
 import java.io.IOException;
 
 public class HelloApplication extends Application {
+    private GameController controller;
+
     @Override
     public void start(Stage stage) throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(HelloApplication.class.getResource("game-view.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 1400, 900);
+        controller = fxmlLoader.getController();
         stage.setTitle("Oko Bere");
         stage.setScene(scene);
         stage.setMinWidth(800);
         stage.setMinHeight(600);
         stage.show();
     }
+
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
 }
@@ -0,0 +1,241 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Bounded queue of inbound messages backed by a fixed array.
+ *
+ * Producers are receiver threads, the consumer is one processor or the callers
+ * waiting for a response. Nothing is allocated per element and what happens
+ * when the queue is full is decided by the overflow policy, so a flood from the
+ * server cannot grow the heap.
+ * @param <E> element type
+ */
+public class InboundQueue<E> {
+
+    /**
+     * What offer() does when the queue is full
+     */
+    public enum OverflowPolicy {
+        BLOCK,          // Wait for free space (up to the block timeout), then drop the new element
+        DROP_OLDEST,    // Drop the oldest element to make room
+        DISCONNECT      // Reject the element, caller closes the connection
+    }
+
+    private final String name;
+    private final Object[] items;
+    private final OverflowPolicy policy;
+    private final long blockTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    // Ring indexes, guarded by lock
+    private int head;
+    private int count;
+
+    // Metrics, guarded by lock
+    private long accepted;
+    private long dropped;
+    private int highWatermark;
+
+    /**
+     * @param name queue name for the log
+     * @param capacity maximum number of elements
+     * @param policy overflow policy
+     * @param blockTimeoutMs how long BLOCK waits for free space
+     */
+    public InboundQueue(String name, int capacity, OverflowPolicy policy, long blockTimeoutMs) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.name = name;
+        this.items = new Object[capacity];
+        this.policy = policy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+    }
+
+    /**
+     * Adds an element, applying the overflow policy when full
+     * @param element element to add
+     * @return false if the element was not added (dropped by BLOCK timeout or rejected by DISCONNECT)
+     */
+    public boolean offer(E element) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (count == items.length) {
+                switch (policy) {
+                    case BLOCK:
+                        long remaining = blockTimeoutNanos;
+                        while (count == items.length) {
+                            if (remaining <= 0) {
+                                dropped++;
+                                // A lost game event leaves the client out of sync with the server
+                                Logger.error(() -> name + " queue stayed full for " + TimeUnit.NANOSECONDS.toMillis(blockTimeoutNanos)
+                                    + " ms, dropping message (client state may be out of sync): " + element);
+                                return false;
+                            }
+                            remaining = notFull.awaitNanos(remaining);
+                        }
+                        break;
+                    case DROP_OLDEST:
+                        Object oldest = removeAt(0);
+                        dropped++;
+                        Logger.warning(() -> name + " queue is full, dropping oldest message: " + oldest);
+                        break;
+                    case DISCONNECT:
+                        dropped++;
+                        return false;
+                }
+            }
+
+            items[index(count)] = element;
+            count++;
+            accepted++;
+            highWatermark = Math.max(highWatermark, count);
+            notEmpty.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the oldest element, blocking until one is available
+     */
+    public E take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return removeAt(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the oldest element matching the filter, other elements keep their order
+     * @param filter element filter
+     * @param deadlineNanos System.nanoTime() deadline, Long.MAX_VALUE for none
+     * @return the element or null on timeout
+     */
+    public E pollMatching(Predicate<? super E> filter, long deadlineNanos) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                for (int i = 0; i < count; i++) {
+                    @SuppressWarnings("unchecked")
+                    E element = (E) items[index(i)];
+                    if (filter.test(element)) {
+                        return removeAt(i);
+                    }
+                }
+
+                if (deadlineNanos == Long.MAX_VALUE) {
+                    notEmpty.await();
+                } else {
+                    long remaining = deadlineNanos - System.nanoTime();
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    notEmpty.awaitNanos(remaining);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all elements
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                items[index(i)] = null;
+            }
+            head = 0;
+            count = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes element at logical position i (0 = oldest), shifting younger elements forward.
+     * Must be called with lock held.
+     */
+    @SuppressWarnings("unchecked")
+    private E removeAt(int i) {
+        E element = (E) items[index(i)];
+        if (i == 0) {
+            // Oldest element - just move the head
+            items[head] = null;
+            head = (head + 1) % items.length;
+        } else {
+            for (int j = i; j < count - 1; j++) {
+                items[index(j)] = items[index(j + 1)];
+            }
+            items[index(count - 1)] = null;
+        }
+        count--;
+        notFull.signal();
+        return element;
+    }
+
+    private int index(int i) {
+        return (head + i) % items.length;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getAcceptedCount() {
+        lock.lock();
+        try {
+            return accepted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getHighWatermark() {
+        lock.lock();
+        try {
+            return highWatermark;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
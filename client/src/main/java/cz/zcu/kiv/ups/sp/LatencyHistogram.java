@@ -0,0 +1,130 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent latency histogram with power-of-two microsecond buckets.
+ * Recording is a few striped adds, so it is safe to use on hot paths.
+ */
+public class LatencyHistogram {
+
+    // Bucket i holds values in [2^(i-1), 2^i) microseconds, bucket 0 holds < 1 us
+    private static final int BUCKETS = 40;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one value
+     * @param nanos duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        long micros = nanos / 1000;
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+
+        buckets[bucket].increment();
+        count.increment();
+        sumNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        sumNanos.reset();
+        maxNanos.reset();
+    }
+
+    /**
+     * Takes a snapshot (percentiles are bucket upper bounds)
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+
+        double mean = total == 0 ? 0 : sumNanos.sum() / (double) total / 1_000_000.0;
+        double max = maxNanos.get() / 1_000_000.0;
+        return new Snapshot(total, mean, percentile(counts, total, 0.50, max),
+            percentile(counts, total, 0.99, max), max);
+    }
+
+    private static double percentile(long[] counts, long total, double quantile, double max) {
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                double upperMillis = (1L << i) / 1000.0;
+                return Math.min(upperMillis, max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Immutable histogram values in milliseconds
+     */
+    public static class Snapshot {
+        private final long count;
+        private final double meanMillis;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        Snapshot(long count, double meanMillis, double p50Millis, double p99Millis, double maxMillis) {
+            this.count = count;
+            this.meanMillis = meanMillis;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanMillis() {
+            return meanMillis;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d mean=%.2fms p50=%.2fms p99=%.2fms max=%.2fms",
+                count, meanMillis, p50Millis, p99Millis, maxMillis);
+        }
+    }
+}
@@ -5,6 +5,64 @@ import javafx.application.Application;
 public class Launcher {
     public static void main(String[] args) {
         Logger.getInstance().setLogFile("client.log");
+
+        // Optional log level: -Dups.log.level=DEBUG (default INFO)
+        Logger.getInstance().setLevel(enumProperty("ups.log.level", Logger.Level.class, Logger.Level.INFO));
+
+        // Optional async logging: -Dups.log.async=8192 [-Dups.log.overflow=BLOCK]
+        int asyncCapacity = asyncLogCapacity();
+        if (asyncCapacity > 0) {
+            Logger.OverflowPolicy policy = enumProperty("ups.log.overflow", Logger.OverflowPolicy.class,
+                Logger.OverflowPolicy.DROP);
+            Logger.getInstance().setAsync(asyncCapacity, policy);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> Logger.getInstance().shutdown()));
+        }
+
+        // Optional protocol capture: -Dups.capture=session.cap
+        String captureFile = System.getProperty("ups.capture");
+        if (captureFile != null && !captureFile.isEmpty()) {
+            ProtocolRecorder.getInstance().start(captureFile);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> ProtocolRecorder.getInstance().stop()));
+        }
+
+        ClientMetrics.getInstance().register();
+
         Application.launch(HelloApplication.class, args);
     }
+
+    /**
+     * Reads -Dups.log.async, a missing or invalid capacity keeps synchronous logging
+     * @return buffer capacity, 0 for synchronous logging
+     */
+    private static int asyncLogCapacity() {
+        String value = System.getProperty("ups.log.async");
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        try {
+            int capacity = Integer.parseInt(value.trim());
+            if (capacity > 0) {
+                return capacity;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        Logger.warning("Invalid ups.log.async value '" + value + "', using synchronous logging");
+        return 0;
+    }
+
+    /**
+     * Reads an enum system property, a missing or unknown value gives the fallback
+     */
+    private static <E extends Enum<E>> E enumProperty(String key, Class<E> type, E fallback) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            Logger.warning("Unknown " + key + " value '" + value + "', using " + fallback);
+            return fallback;
+        }
+    }
 }
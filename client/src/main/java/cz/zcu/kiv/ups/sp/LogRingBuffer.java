@@ -0,0 +1,112 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free multi-producer single-consumer ring buffer of log entries.
+ *
+ * Every slot has a sequence number: producers claim a slot with one CAS on the
+ * tail and publish it by advancing the slot sequence, the single consumer reads
+ * published slots in order and releases them for the next lap.
+ */
+class LogRingBuffer {
+
+    /**
+     * Receives drained entries
+     */
+    interface EntryHandler {
+        void onEntry(long timestamp, Logger.Level level, String message);
+    }
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final long[] timestamps;
+    private final Logger.Level[] levels;
+    private final String[] messages;
+
+    private final AtomicLong tail = new AtomicLong();
+    private long head;  // Accessed only by the consumer
+
+    /**
+     * @param requestedCapacity capacity, rounded up to a power of two
+     */
+    LogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        mask = capacity - 1;
+        sequences = new AtomicLongArray(capacity);
+        timestamps = new long[capacity];
+        levels = new Logger.Level[capacity];
+        messages = new String[capacity];
+
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an entry (any thread)
+     * @return false if buffer is full
+     */
+    boolean offer(long timestamp, Logger.Level level, String message) {
+        long pos = tail.get();
+        int index;
+
+        while (true) {
+            index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;  // Slot not yet consumed - buffer full
+            } else {
+                pos = tail.get();  // Another producer took the slot
+            }
+        }
+
+        timestamps[index] = timestamp;
+        levels[index] = level;
+        messages[index] = message;
+        sequences.set(index, pos + 1);  // Publish
+        return true;
+    }
+
+    /**
+     * Drains published entries (consumer thread only)
+     * @param handler receives entries in order
+     * @param maxEntries maximum entries to drain
+     * @return number of drained entries
+     */
+    int drain(EntryHandler handler, int maxEntries) {
+        int drained = 0;
+
+        while (drained < maxEntries) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;  // Not published yet
+            }
+
+            handler.onEntry(timestamps[index], levels[index], messages[index]);
+            messages[index] = null;
+            sequences.set(index, head + mask + 1);  // Release slot for next lap
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Checks if there is nothing to drain (consumer thread only)
+     */
+    boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
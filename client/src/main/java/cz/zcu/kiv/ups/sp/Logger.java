@@ -1,22 +1,57 @@
 package cz.zcu.kiv.ups.sp;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
 public class Logger {
 
     public enum Level {
+        DEBUG,
         INFO,
         WARNING,
         ERROR
     }
 
+    /**
+     * What to do when the async buffer is full
+     */
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+
     private static final Logger instance = new Logger();
 
-    private PrintWriter logFile;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private static final int MAX_BATCH = 512;
+    private static final long WRITER_IDLE_PARK_NS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private RollingLogFile logFile;
+    private volatile Level minLevel = Level.INFO;
+
+    // Async mode
+    private volatile LogRingBuffer ringBuffer;
+    private volatile OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private volatile Thread writerThread;
+    private volatile boolean writerRunning = false;
+    private volatile boolean writerParked = false;
+    private final AtomicLong droppedMessages = new AtomicLong();
+
+    // Writer thread state - reused between batches
+    private final StringBuilder outBatch = new StringBuilder();
+    private final StringBuilder errBatch = new StringBuilder();
+    private final StringBuilder fileBatch = new StringBuilder();
+    private long cachedSecond = -1;
+    private String cachedTimestamp;
+
     private Logger() {
     }
 
@@ -24,8 +59,44 @@ public class Logger {
         return instance;
     }
 
+    /**
+     * Sets the lowest level that is logged, messages below it are skipped
+     */
+    public void setLevel(Level level) {
+        minLevel = level;
+    }
+
+    public Level getLevel() {
+        return minLevel;
+    }
+
+    public boolean isEnabled(Level level) {
+        return level.ordinal() >= minLevel.ordinal();
+    }
+
+    /**
+     * Logs a message built only if the level is enabled
+     */
+    public void log(Level level, Supplier<String> messageSupplier) {
+        if (isEnabled(level)) {
+            write(level, messageSupplier.get());
+        }
+    }
+
     public void log(Level level, String message) {
-        String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
+        if (isEnabled(level)) {
+            write(level, message);
+        }
+    }
+
+    private void write(Level level, String message) {
+        LogRingBuffer buffer = ringBuffer;
+        if (buffer != null) {
+            enqueue(buffer, level, message);
+            return;
+        }
+
+        String timestamp = TIMESTAMP_FORMAT.format(Instant.now());
         String fullMessage = "[" + timestamp + "] [" + level.name() + "] " + message;
 
         if (level == Level.ERROR) {
@@ -34,32 +105,236 @@ public class Logger {
             System.out.println(fullMessage);
         }
 
-        if (logFile != null) {
-            logFile.println(fullMessage);
-            logFile.flush();
+        synchronized (this) {
+            if (logFile != null) {
+                try {
+                    logFile.println(fullMessage);
+                    logFile.flush();
+                } catch (IOException e) {
+                    fileWriteFailed(e);
+                }
+            }
         }
     }
 
+    /**
+     * Appends to a log file rolled over at the default size
+     */
     public void setLogFile(String filename) {
+        setLogFile(filename, RollingLogFile.DEFAULT_MAX_BYTES, RollingLogFile.DEFAULT_MAX_SEGMENTS);
+    }
+
+    /**
+     * Appends to a log file that is rotated when it reaches maxBytes,
+     * older segments are gzip-compressed in the background
+     * @param filename active log file
+     * @param maxBytes size that triggers rotation
+     * @param maxSegments number of compressed segments to keep
+     */
+    public synchronized void setLogFile(String filename, long maxBytes, int maxSegments) {
         try {
             if (logFile != null) {
                 logFile.close();
             }
-            logFile = new PrintWriter(new FileWriter(filename, false));
+            logFile = new RollingLogFile(filename, maxBytes, maxSegments);
         } catch (IOException e) {
-            log(Level.ERROR,"Unable to open log file: " + filename);
+            logFile = null;
+            log(Level.ERROR, "Unable to open log file: " + filename);
+        }
+    }
+
+    /**
+     * Stops file logging after a write error (caller holds the lock)
+     */
+    private void fileWriteFailed(IOException e) {
+        System.err.println("Log file write failed, file logging disabled: " + e.getMessage());
+        try {
+            logFile.close();
+        } catch (IOException ignored) {
+        }
+        logFile = null;
+    }
+
+    /**
+     * Switches to asynchronous logging. Callers only put entries into a bounded
+     * ring buffer, a background thread formats them and writes them in batches.
+     * @param capacity buffer capacity (rounded up to a power of two)
+     * @param policy what to do when the buffer is full
+     */
+    public synchronized void setAsync(int capacity, OverflowPolicy policy) {
+        if (ringBuffer != null) {
+            return;
+        }
+
+        overflowPolicy = policy;
+        ringBuffer = new LogRingBuffer(capacity);
+        writerRunning = true;
+        writerThread = new Thread(this::runWriter, "logger-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stops the async writer after it has written everything buffered.
+     * Messages logged afterwards are written synchronously.
+     */
+    public void shutdown() {
+        Thread writer = writerThread;
+        LogRingBuffer buffer = ringBuffer;
+        if (writer == null || buffer == null) {
+            return;
+        }
+
+        ringBuffer = null;
+        writerRunning = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Entries put in by callers that saw the buffer just before it was cleared
+        if (!writer.isAlive()) {
+            while (buffer.drain(this::appendEntry, MAX_BATCH) > 0) {
+                writeBatch();
+            }
         }
     }
 
+    public long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+
+    private void enqueue(LogRingBuffer buffer, Level level, String message) {
+        long timestamp = System.currentTimeMillis();
+
+        while (!buffer.offer(timestamp, level, message)) {
+            if (overflowPolicy == OverflowPolicy.DROP || !writerRunning) {
+                droppedMessages.incrementAndGet();
+                return;
+            }
+            // BLOCK - wait for the writer to free a slot
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(50_000);
+        }
+
+        if (writerParked) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * Background writer - drains the buffer and writes whole batches
+     */
+    private void runWriter() {
+        LogRingBuffer buffer = ringBuffer;
+        long reportedDrops = 0;
+
+        while (true) {
+            int drained = buffer.drain(this::appendEntry, MAX_BATCH);
+            if (drained > 0) {
+                writeBatch();
+                continue;
+            }
+
+            long dropped = droppedMessages.get();
+            if (dropped != reportedDrops) {
+                appendEntry(System.currentTimeMillis(), Level.WARNING,
+                    "Log buffer full, dropped " + (dropped - reportedDrops) + " message(s)");
+                writeBatch();
+                reportedDrops = dropped;
+            }
+
+            if (!writerRunning) {
+                break;
+            }
+
+            writerParked = true;
+            if (buffer.isEmpty()) {
+                LockSupport.parkNanos(WRITER_IDLE_PARK_NS);
+            }
+            writerParked = false;
+        }
+
+        synchronized (this) {
+            if (logFile != null) {
+                try {
+                    logFile.flush();
+                } catch (IOException e) {
+                    fileWriteFailed(e);
+                }
+            }
+        }
+    }
+
+    private void appendEntry(long timestamp, Level level, String message) {
+        long second = timestamp / 1000;
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedTimestamp = TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(timestamp));
+        }
+
+        StringBuilder batch = level == Level.ERROR ? errBatch : outBatch;
+        int start = batch.length();
+        batch.append('[').append(cachedTimestamp).append("] [").append(level.name()).append("] ")
+             .append(message).append(System.lineSeparator());
+        fileBatch.append(batch, start, batch.length());
+    }
+
+    private void writeBatch() {
+        if (outBatch.length() > 0) {
+            System.out.print(outBatch);
+        }
+        if (errBatch.length() > 0) {
+            System.err.print(errBatch);
+        }
+
+        synchronized (this) {
+            if (logFile != null) {
+                try {
+                    logFile.print(fileBatch);
+                    logFile.flush();
+                } catch (IOException e) {
+                    fileWriteFailed(e);
+                }
+            }
+        }
+
+        outBatch.setLength(0);
+        errBatch.setLength(0);
+        fileBatch.setLength(0);
+    }
+
+    public static void debug(String message) {
+        getInstance().log(Level.DEBUG, message);
+    }
+
+    public static void debug(Supplier<String> messageSupplier) {
+        getInstance().log(Level.DEBUG, messageSupplier);
+    }
+
     public static void info(String message) {
         getInstance().log(Level.INFO, message);
     }
 
+    public static void info(Supplier<String> messageSupplier) {
+        getInstance().log(Level.INFO, messageSupplier);
+    }
+
     public static void warning(String message) {
         getInstance().log(Level.WARNING, message);
     }
 
+    public static void warning(Supplier<String> messageSupplier) {
+        getInstance().log(Level.WARNING, messageSupplier);
+    }
+
     public static void error(String message) {
         getInstance().log(Level.ERROR, message);
     }
+
+    public static void error(Supplier<String> messageSupplier) {
+        getInstance().log(Level.ERROR, messageSupplier);
+    }
 }
@@ -0,0 +1,43 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Wire format of protocol messages. NetworkClient reads and writes messages in
+ * their text form (e.g. "CARD|SRDCE-KRAL") through the codec of the connection.
+ *
+ * A codec instance belongs to one connection. It keeps a partially received
+ * message between reads, so a read timeout does not lose data.
+ */
+public interface MessageCodec {
+
+    /**
+     * Name of the format (TEXT, BIN1)
+     */
+    String getName();
+
+    /**
+     * Encodes a message into the stream (not flushed)
+     * @param out output stream
+     * @param message message in text form without line end
+     * @return number of bytes written
+     * @throws IOException if writing fails or the message cannot be encoded
+     */
+    int write(OutputStream out, String message) throws IOException;
+
+    /**
+     * Reads the next message
+     * @param in input stream
+     * @return message in text form, null at end of stream
+     * @throws java.net.SocketTimeoutException if no complete message arrived in time
+     * @throws IOException if reading fails or the data is malformed
+     */
+    String read(InputStream in) throws IOException;
+
+    /**
+     * Number of bytes of the message returned by the last read()
+     */
+    int getLastReadSize();
+}
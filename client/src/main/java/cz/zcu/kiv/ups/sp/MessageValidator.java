@@ -55,7 +55,8 @@ public class MessageValidator {
      */
     public static boolean validateNotNull(String param, String paramName) {
         if (param == null) {
-            Logger.error("Validation error: " + paramName + " is null");
+            ClientMetrics.getInstance().validationFailed();
+            Logger.error(() -> "Validation error: " + paramName + " is null");
             return false;
         }
         return true;
@@ -69,7 +70,8 @@ public class MessageValidator {
      */
     public static boolean validateParameterCount(ProtocolMessage msg, int expectedCount) {
         if (msg.getParameterCount() < expectedCount) {
-            Logger.error("Validation error: Expected " + expectedCount + " parameters, got " + msg.getParameterCount());
+            ClientMetrics.getInstance().validationFailed();
+            Logger.error(() -> "Validation error: Expected " + expectedCount + " parameters, got " + msg.getParameterCount());
             return false;
         }
         return true;
@@ -91,12 +93,14 @@ public class MessageValidator {
         try {
             int value = Integer.parseInt(param);
             if (value < min || value > max) {
-                Logger.error("Validation error: " + paramName + " value " + value + " out of range [" + min + ", " + max + "]");
+                ClientMetrics.getInstance().validationFailed();
+                Logger.error(() -> "Validation error: " + paramName + " value " + value + " out of range [" + min + ", " + max + "]");
                 return null;
             }
             return value;
         } catch (NumberFormatException e) {
-            Logger.error("Validation error: " + paramName + " is not a valid integer: " + param);
+            ClientMetrics.getInstance().validationFailed();
+            Logger.error(() -> "Validation error: " + paramName + " is not a valid integer: " + param);
             return null;
         }
     }
@@ -154,7 +158,8 @@ public class MessageValidator {
         }
 
         if (!CARD_PATTERN.matcher(card).matches()) {
-            Logger.error("Validation error: Invalid card format: " + card);
+            ClientMetrics.getInstance().validationFailed();
+            Logger.error(() -> "Validation error: Invalid card format: " + card);
             return false;
         }
 
@@ -164,7 +169,8 @@ public class MessageValidator {
         }
 
         if (!VALID_SUITS.contains(parts[0]) || !VALID_RANKS.contains(parts[1])) {
-            Logger.error("Validation error: Invalid card suit or rank: " + card);
+            ClientMetrics.getInstance().validationFailed();
+            Logger.error(() -> "Validation error: Invalid card suit or rank: " + card);
             return false;
         }
 
@@ -180,7 +186,8 @@ public class MessageValidator {
         }
 
         if (!VALID_ROLES.contains(role)) {
-            Logger.error("Validation error: Invalid role: " + role);
+            ClientMetrics.getInstance().validationFailed();
+            Logger.error(() -> "Validation error: Invalid role: " + role);
             return false;
         }
 
@@ -196,7 +203,8 @@ public class MessageValidator {
         }
 
         if (!VALID_ACTIONS.contains(action)) {
-            Logger.error("Validation error: Invalid opponent action: " + action);
+            ClientMetrics.getInstance().validationFailed();
+            Logger.error(() -> "Validation error: Invalid opponent action: " + action);
             return false;
         }
 
@@ -212,7 +220,8 @@ public class MessageValidator {
         }
 
         if (!VALID_WINNERS.contains(winner)) {
-            Logger.error("Validation error: Invalid winner: " + winner);
+            ClientMetrics.getInstance().validationFailed();
+            Logger.error(() -> "Validation error: Invalid winner: " + winner);
             return false;
         }
 
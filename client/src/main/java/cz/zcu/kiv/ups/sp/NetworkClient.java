@@ -1,9 +1,19 @@
 package cz.zcu.kiv.ups.sp;
 
 import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
-import java.nio.charset.StandardCharsets;
+import java.net.UnknownHostException;
+import jdk.net.ExtendedSocketOptions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import cz.zcu.kiv.ups.sp.Logger;
 
 /**
@@ -11,27 +21,50 @@ import cz.zcu.kiv.ups.sp.Logger;
  */
 public class NetworkClient {
     private Socket socket;
-    private BufferedReader reader;
-    private PrintWriter writer;
+    private InputStream input;
+    private OutputStream output;
+    // Wire format - text until the server offers binary (see setCodec())
+    private volatile MessageCodec codec;
     private String serverHost;
     private int serverPort;
+    // Connect attempts and heartbeat run as session tasks
+    private final ClientExecutor executor;
     private boolean connected;
+    private final ReentrantLock receiveLock = new ReentrantLock();
+    private final ReentrantLock sendLock = new ReentrantLock();
+
+    // Sockets of a connect in progress, closed by disconnect() to abort it
+    private final List<Socket> pendingSockets = new ArrayList<>();
 
     // Heartbeat mechanism for detecting server unavailability
     private volatile boolean heartbeatRunning = false;
     private Thread heartbeatThread;
-    private static final int HEARTBEAT_INTERVAL_MS = 5000;   // 5 seconds
-    private static final int HEARTBEAT_TIMEOUT_MS = 8000;   // 8 seconds - if no message received, connection is dead
-    private volatile long lastMessageReceivedTime = 0;
+    private static final int HEARTBEAT_INTERVAL_MS = 5000;   // Max silence in either direction before PING (server drops clients after 10 s)
+    private static final int MIN_PONG_TIMEOUT_MS = 3000;     // Lower bound of PONG timeout (RTO)
+    private static final int MAX_PONG_TIMEOUT_MS = 15000;    // Upper bound of PONG timeout on slow links
+    private static final int MIN_HEARTBEAT_SLEEP_MS = 100;
+    private static final int CONNECT_TIMEOUT_MS = 3000;     // TCP connect timeout per address
+    private volatile long lastReceivedNanos = 0;
+    private volatile long lastSentNanos = 0;
+
+    // Heartbeat round-trip time (PING sent -> PONG received), 0 = no PING outstanding
+    private volatile long pingSentNanos = 0;
+    private volatile long lastRoundTripNanos = -1;
+
+    // Smoothed RTT and RTT variation (RFC 6298 style), updated by the receiver only
+    private volatile long smoothedRttNanos = -1;
+    private volatile long rttVariationNanos = 0;
 
     /**
      * Creates a new network client
      * @param host server hostname
      * @param port server port
+     * @param executor executor running connect attempts and the heartbeat
      */
-    public NetworkClient(String host, int port) {
+    public NetworkClient(String host, int port, ClientExecutor executor) {
         this.serverHost = host;
         this.serverPort = port;
+        this.executor = executor;
         this.connected = false;
     }
 
@@ -41,17 +74,52 @@ public class NetworkClient {
      */
     public boolean connect() {
         try {
-            socket = new Socket(serverHost, serverPort);
+            return connect(resolve());
+        } catch (UnknownHostException e) {
+            Logger.error("Failed to connect to server: unknown host " + e.getMessage());
+            connected = false;
+            return false;
+        }
+    }
+
+    /**
+     * Resolves all addresses of the server host
+     * @return resolved addresses
+     * @throws UnknownHostException if the host cannot be resolved
+     */
+    public InetAddress[] resolve() throws UnknownHostException {
+        InetAddress[] addresses = InetAddress.getAllByName(serverHost);
+        if (addresses.length == 0) {
+            throw new UnknownHostException(serverHost);
+        }
+        return addresses;
+    }
+
+    /**
+     * Connects to the server using already resolved addresses.
+     * A connect in progress is aborted by disconnect() or by interrupting the caller.
+     * @param addresses server addresses
+     * @return true if connection successful, false otherwise
+     */
+    public boolean connect(InetAddress[] addresses) {
+        try {
+            socket = openSocket(addresses);
+            if (Thread.currentThread().isInterrupted()) {
+                // Cancelled while connecting - do not keep the socket
+                socket.close();
+                throw new IOException("Connect cancelled");
+            }
             socket.setSoTimeout(5000);
-            reader = new BufferedReader(
-                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)
-            );
-            writer = new PrintWriter(
-                new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8),
-                true
-            );
+            input = new BufferedInputStream(socket.getInputStream());
+            output = new BufferedOutputStream(socket.getOutputStream());
+            codec = new TextCodec();
+            if (Boolean.getBoolean("ups.keepalive")) {
+                enableKeepAlive();
+            }
             connected = true;
-            lastMessageReceivedTime = System.currentTimeMillis();  // Initialize timestamp
+            lastReceivedNanos = System.nanoTime();  // Initialize timestamps
+            lastSentNanos = lastReceivedNanos;
+            pingSentNanos = 0;
             return true;
         } catch (IOException e) {
             Logger.error("Failed to connect to server: " + e.getMessage());
@@ -66,46 +134,164 @@ public class NetworkClient {
      * @return true if sent successfully
      */
     public boolean send(String message) {
-        if (!connected || writer == null) {
+        if (!connected || output == null) {
             Logger.error("Not connected to server");
             return false;
         }
 
+        // Lock instead of synchronized - a virtual thread blocked in write would pin its carrier
+        sendLock.lock();
         try {
-            writer.print(message + "\n");
-            writer.flush();
+            ClientEvents.MessageSent event = new ClientEvents.MessageSent();
+            event.begin();
+            long now = System.nanoTime();
+            if (pingSentNanos == 0 && "PING".equals(message)) {
+                pingSentNanos = now;
+            }
+            int size = codec.write(output, message);
+            output.flush();
+            lastSentNanos = now;
+            event.end();
+            if (event.shouldCommit()) {
+                event.command = ClientEvents.command(message);
+                event.size = size;
+                event.commit();
+            }
+            ProtocolRecorder.getInstance().recordOutbound(message);
+            ClientMetrics.getInstance().messageSent(message);
+            Logger.debug(() -> "Sent: " + message);
             return true;
         } catch (Exception e) {
             Logger.error("Failed to send message: " + e.getMessage());
             connected = false;
             return false;
+        } finally {
+            sendLock.unlock();
         }
     }
 
+    /**
+     * Sends several messages with a single flush
+     * @param messages messages to send
+     * @return true if all were written to the socket
+     */
+    public boolean sendBatch(List<String> messages) {
+        if (!connected || output == null) {
+            Logger.error("Not connected to server");
+            return false;
+        }
+
+        ClientEvents.MessageSent event = new ClientEvents.MessageSent();
+        int size = 0;
+        // The lock keeps the batch together when another thread sends at the same time
+        sendLock.lock();
+        try {
+            event.begin();
+            for (String message : messages) {
+                size += codec.write(output, message);
+            }
+            output.flush();
+            event.end();
+        } catch (IOException e) {
+            Logger.error("Failed to send " + messages.size() + " message(s): " + e.getMessage());
+            connected = false;
+            return false;
+        } finally {
+            sendLock.unlock();
+        }
+        lastSentNanos = System.nanoTime();
+
+        if (event.shouldCommit()) {
+            event.command = messages.size() == 1 ? ClientEvents.command(messages.get(0)) : "BATCH";
+            event.size = size;
+            event.commit();
+        }
+        for (String message : messages) {
+            ProtocolRecorder.getInstance().recordOutbound(message);
+            ClientMetrics.getInstance().messageSent(message);
+            Logger.debug(() -> "Sent: " + message);
+        }
+        return true;
+    }
+
+    /**
+     * Switches the wire format. Called on the receiving thread right after reading
+     * the message that announced the switch, so the next read already uses it.
+     * @param newCodec codec for the rest of the connection
+     */
+    public void setCodec(MessageCodec newCodec) {
+        sendLock.lock();
+        try {
+            codec = newCodec;
+        } finally {
+            sendLock.unlock();
+        }
+        Logger.info("Using " + newCodec.getName() + " protocol");
+    }
+
+    /**
+     * Gets the name of the wire format in use
+     */
+    public String getCodecName() {
+        MessageCodec current = codec;
+        return current != null ? current.getName() : TextCodec.NAME;
+    }
+
     /**
      * Receives a message from the server
      * @return received message or null if error
      */
-    public synchronized String receive() {
-        if (!connected || reader == null) {
+    public String receive() {
+        // Lock instead of synchronized - blocking in read would pin a virtual thread's carrier
+        receiveLock.lock();
+        try {
+            return receiveLine();
+        } finally {
+            receiveLock.unlock();
+        }
+    }
+
+    private String receiveLine() {
+        if (!connected || input == null) {
             return null;
         }
 
         try {
-            String line = reader.readLine();
+            MessageCodec current = codec;
+            String line = current.read(input);
             if (line == null) {
                 Logger.error("Server closed connection");
                 connected = false;
                 return null;
             }
+            ClientEvents.MessageReceived event = new ClientEvents.MessageReceived();
+            event.begin();
+
             // Update last message received timestamp
-            lastMessageReceivedTime = System.currentTimeMillis();
+            lastReceivedNanos = System.nanoTime();
+            long pingSent = pingSentNanos;
+            if (pingSent != 0 && "PONG".equals(line)) {
+                updateRoundTrip(lastReceivedNanos - pingSent);
+                pingSentNanos = 0;
+            }
+            ProtocolRecorder.getInstance().recordInbound(line);
+            ClientMetrics.getInstance().messageReceived(line);
+            Logger.debug(() -> "Received: " + line);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.command = ClientEvents.command(line);
+                event.size = current.getLastReadSize();
+                event.commit();
+            }
             return line;
         } catch (SocketTimeoutException e) {
             // Timeout is normal - just return null
             return null;
         } catch (IOException e) {
-            Logger.error("Network error: " + e.getMessage());
+            if (connected) {  // Not closed by disconnect()
+                Logger.error("Network error: " + e.getMessage());
+            }
             connected = false;
             return null;
         }
@@ -116,23 +302,148 @@ public class NetworkClient {
      */
     public void disconnect() {
         try {
-            if (writer != null) {
-                writer.close();
-            }
-            if (reader != null) {
-                reader.close();
-            }
+            connected = false;
+            closePendingSockets();
+            // Close socket first - it wakes up a receiver blocked in read
+            // (closing the input stream first would wait for the read to finish)
             if (socket != null) {
                 socket.close();
             }
-            connected = false;
+            if (output != null) {
+                output.close();
+            }
+            if (input != null) {
+                input.close();
+            }
         } catch (IOException e) {
             Logger.error("Error closing connection: " + e.getMessage());
         }
     }
 
     /**
-     * Starts heartbeat mechanism to detect server unavailability
+     * Sets the read timeout of receive()
+     * @param timeoutMs timeout in milliseconds, 0 blocks until a message arrives
+     */
+    public void setReadTimeout(int timeoutMs) {
+        try {
+            if (socket != null) {
+                socket.setSoTimeout(timeoutMs);
+            }
+        } catch (IOException e) {
+            Logger.error("Failed to set read timeout: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens a socket to the server. All resolved addresses are tried in parallel
+     * with a connect timeout, the first successful connection wins.
+     * @param addresses resolved server addresses
+     * @return connected socket
+     * @throws IOException if no address could be connected
+     */
+    private Socket openSocket(InetAddress[] addresses) throws IOException {
+        // One socket per address, losers are closed to abort their connect
+        List<Socket> candidates = new ArrayList<>();
+        for (int i = 0; i < addresses.length; i++) {
+            candidates.add(new Socket());
+        }
+        synchronized (pendingSockets) {
+            pendingSockets.addAll(candidates);
+        }
+
+        if (addresses.length == 1) {
+            try {
+                return connectTo(candidates.get(0), addresses[0]);
+            } finally {
+                clearPendingSockets();
+            }
+        }
+
+        Socket winner = null;
+
+        try {
+            ExecutorCompletionService<Socket> completion = new ExecutorCompletionService<>(
+                attempt -> executor.startSessionTask("connect-" + serverHost, attempt));
+            for (int i = 0; i < addresses.length; i++) {
+                Socket candidate = candidates.get(i);
+                InetAddress address = addresses[i];
+                completion.submit(() -> connectTo(candidate, address));
+            }
+
+            IOException lastError = null;
+            for (int i = 0; i < addresses.length && winner == null; i++) {
+                Future<Socket> done = completion.poll(CONNECT_TIMEOUT_MS + 1000L, TimeUnit.MILLISECONDS);
+                if (done == null) {
+                    break;
+                }
+
+                try {
+                    winner = done.get();
+                } catch (ExecutionException e) {
+                    lastError = e.getCause() instanceof IOException
+                        ? (IOException) e.getCause()
+                        : new IOException(e.getCause());
+                }
+            }
+
+            if (winner == null) {
+                throw lastError != null ? lastError : new SocketTimeoutException("Connect timed out");
+            }
+            return winner;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Connect interrupted");
+        } finally {
+            clearPendingSockets();
+            for (Socket candidate : candidates) {
+                if (candidate != winner) {
+                    try {
+                        candidate.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+        }
+    }
+
+    private void clearPendingSockets() {
+        synchronized (pendingSockets) {
+            pendingSockets.clear();
+        }
+    }
+
+    private void closePendingSockets() {
+        synchronized (pendingSockets) {
+            for (Socket pending : pendingSockets) {
+                try {
+                    pending.close();
+                } catch (IOException ignored) {
+                }
+            }
+            pendingSockets.clear();
+        }
+    }
+
+    /**
+     * Connects a socket to one address with timeout
+     */
+    private Socket connectTo(Socket socket, InetAddress address) throws IOException {
+        try {
+            socket.connect(new InetSocketAddress(address, serverPort), CONNECT_TIMEOUT_MS);
+            return socket;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts adaptive heartbeat to detect server unavailability.
+     *
+     * PING is sent only when nothing was sent for the heartbeat interval (so the
+     * server does not time us out) or nothing was received for it (liveness probe),
+     * busy connections need no PINGs. The connection is dead when a PING is not
+     * answered within the PONG timeout derived from measured round-trip times.
      * @param onConnectionLost callback to run when connection is lost
      */
     public void startHeartbeat(Runnable onConnectionLost) {
@@ -141,34 +452,82 @@ public class NetworkClient {
         }
 
         heartbeatRunning = true;
-        heartbeatThread = new Thread(() -> {
+        heartbeatThread = executor.startSessionTask("heartbeat-" + serverHost, () -> {
+            long interval = TimeUnit.MILLISECONDS.toNanos(HEARTBEAT_INTERVAL_MS);
+
             while (heartbeatRunning && connected) {
                 try {
-                    Thread.sleep(HEARTBEAT_INTERVAL_MS);
-
-                    if (!connected) break;
-
-                    // Send PING to keep connection alive and trigger PONG response
-                    send("PING");
+                    long now = System.nanoTime();
+                    long pingSent = pingSentNanos;
 
-                    // Check if we've received ANY message recently
-                    long timeSinceLastMessage = System.currentTimeMillis() - lastMessageReceivedTime;
-
-                    if (timeSinceLastMessage > HEARTBEAT_TIMEOUT_MS) {
-                        // No message received for too long - connection is dead
+                    if (pingSent != 0 && now - pingSent > getPongTimeoutNanos()) {
+                        // PING not answered in time - connection is dead
                         Logger.error("Connection lost - no response from server");
                         onConnectionLost.run();
                         break;
                     }
 
+                    long sendDue = lastSentNanos + interval;
+                    long probeDue = lastReceivedNanos + interval;
+                    if (pingSent == 0 && (now >= sendDue || now >= probeDue)) {
+                        send("PING");
+                        continue;
+                    }
+
+                    // Sleep until the next PING is due or the PONG timeout expires
+                    long wakeUp = pingSent != 0
+                        ? Math.min(sendDue, pingSent + getPongTimeoutNanos())
+                        : Math.min(sendDue, probeDue);
+                    long sleepMs = Math.max(MIN_HEARTBEAT_SLEEP_MS, TimeUnit.NANOSECONDS.toMillis(wakeUp - now) + 1);
+                    Thread.sleep(sleepMs);
+
                 } catch (InterruptedException e) {
                     break;
                 }
             }
             heartbeatRunning = false;
         });
-        heartbeatThread.setDaemon(true);
-        heartbeatThread.start();
+    }
+
+    /**
+     * Adds a round-trip sample to smoothed RTT and variation
+     */
+    private void updateRoundTrip(long sampleNanos) {
+        lastRoundTripNanos = sampleNanos;
+        long srtt = smoothedRttNanos;
+        if (srtt < 0) {
+            smoothedRttNanos = sampleNanos;
+            rttVariationNanos = sampleNanos / 2;
+        } else {
+            rttVariationNanos = (3 * rttVariationNanos + Math.abs(srtt - sampleNanos)) / 4;
+            smoothedRttNanos = (7 * srtt + sampleNanos) / 8;
+        }
+    }
+
+    /**
+     * PONG timeout - SRTT + 4 * RTTVAR clamped to [MIN_PONG_TIMEOUT_MS, MAX_PONG_TIMEOUT_MS]
+     */
+    private long getPongTimeoutNanos() {
+        long srtt = smoothedRttNanos;
+        long rto = srtt < 0 ? 0 : srtt + 4 * rttVariationNanos;
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(MIN_PONG_TIMEOUT_MS),
+                        Math.min(TimeUnit.MILLISECONDS.toNanos(MAX_PONG_TIMEOUT_MS), rto));
+    }
+
+    /**
+     * Enables TCP keepalive, with short probe timing where the platform supports it
+     */
+    private void enableKeepAlive() {
+        try {
+            socket.setKeepAlive(true);
+            if (socket.supportedOptions().contains(ExtendedSocketOptions.TCP_KEEPIDLE)) {
+                socket.setOption(ExtendedSocketOptions.TCP_KEEPIDLE, 10);
+                socket.setOption(ExtendedSocketOptions.TCP_KEEPINTERVAL, 3);
+                socket.setOption(ExtendedSocketOptions.TCP_KEEPCOUNT, 3);
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            Logger.warning("Unable to enable TCP keepalive: " + e.getMessage());
+        }
     }
 
     /**
@@ -181,6 +540,31 @@ public class NetworkClient {
         }
     }
 
+    /**
+     * Gets the round-trip time of the last answered heartbeat
+     * @return RTT in milliseconds or -1 if no PONG was received yet
+     */
+    public long getLastRoundTripMillis() {
+        long rtt = lastRoundTripNanos;
+        return rtt < 0 ? -1 : rtt / 1_000_000;
+    }
+
+    /**
+     * Gets the smoothed heartbeat round-trip time
+     * @return SRTT in milliseconds or -1 if no PONG was received yet
+     */
+    public long getSmoothedRoundTripMillis() {
+        long srtt = smoothedRttNanos;
+        return srtt < 0 ? -1 : srtt / 1_000_000;
+    }
+
+    /**
+     * Gets the current PONG timeout in milliseconds
+     */
+    public long getPongTimeoutMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getPongTimeoutNanos());
+    }
+
     public String getServerHost() {
         return serverHost;
     }
@@ -0,0 +1,463 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hit/stand decision support.
+ *
+ * Tracks which of the 32 cards have already left the deck. The server deals all
+ * rounds of a game from one deck and reveals both hands at ROUND_END, so every
+ * drawn card eventually becomes known. Remaining cards are grouped into value
+ * classes (1, 2, 7, 8, 9, 10, 11) and the bust probability and expected value of
+ * HIT and STAND (+1 win, -1 loss) are computed exactly over the remaining deck
+ * composition.
+ *
+ * Opponent model: a BANKER opponent (acts after us) hits while below the stand
+ * threshold, a PLAYER opponent (acted before us) holds a random not busted hand
+ * with its known card count. Equal totals are won by the BANKER.
+ *
+ * Not thread safe - memo tables are kept for the whole game, so the first evaluation
+ * of a deal can take milliseconds. Run all calls on one worker thread and evaluate
+ * after every dealt card; evaluate() then returns the cached result immediately.
+ */
+public class OddsEngine {
+
+    private static final int[] CLASS_VALUES = {1, 2, 7, 8, 9, 10, 11};
+    private static final int CLASS_COUNT = CLASS_VALUES.length;
+    private static final int ACE_CLASS = 6;
+    private static final int BUST = 22;  // Index of "busted" in total distributions
+
+    public static final int DEFAULT_OPPONENT_STAND_THRESHOLD = 15;
+
+    // Value class of each card index
+    private static final int[] CARD_CLASS = new int[Cards.DECK_SIZE];
+
+    // Binomial coefficients C(n, k) for n, k <= 32
+    private static final long[][] BINOMIAL = new long[Cards.DECK_SIZE + 1][Cards.DECK_SIZE + 1];
+
+    static {
+        for (int i = 0; i < Cards.DECK_SIZE; i++) {
+            int value = Cards.value(i);
+            for (int c = 0; c < CLASS_COUNT; c++) {
+                if (CLASS_VALUES[c] == value) {
+                    CARD_CLASS[i] = c;
+                }
+            }
+        }
+
+        for (int n = 0; n <= Cards.DECK_SIZE; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    /**
+     * Result of an evaluation
+     */
+    public static class Odds {
+        private final double bustProbability;
+        private final double hitExpectedValue;
+        private final double standExpectedValue;
+
+        public Odds(double bustProbability, double hitExpectedValue, double standExpectedValue) {
+            this.bustProbability = bustProbability;
+            this.hitExpectedValue = hitExpectedValue;
+            this.standExpectedValue = standExpectedValue;
+        }
+
+        public double getBustProbability() {
+            return bustProbability;
+        }
+
+        public double getHitExpectedValue() {
+            return hitExpectedValue;
+        }
+
+        public double getStandExpectedValue() {
+            return standExpectedValue;
+        }
+
+        public boolean shouldHit() {
+            return hitExpectedValue > standExpectedValue;
+        }
+    }
+
+    private final boolean[] seen = new boolean[Cards.DECK_SIZE];
+    private final boolean[] inHand = new boolean[Cards.DECK_SIZE];
+    private int handTotal;
+    private int handSize;
+    private boolean handIsFirstTwoAces;
+    private int opponentCardCount;
+    private int drawnFromDeck;
+    private boolean refilledInRound;
+    private int opponentStandThreshold = DEFAULT_OPPONENT_STAND_THRESHOLD;
+
+    // Memo tables keyed by deck composition, kept for the whole game because
+    // consecutive evaluations share most of the reachable deck compositions
+    private static final int MAX_MEMO_ENTRIES = 200000;
+    private final Map<Long, double[]> opponentDistributions = new HashMap<>();
+    private final Map<Long, double[]> opponentDraws = new HashMap<>();
+    private final Map<Long, Double> hitValues = new HashMap<>();
+
+    // Last result, valid until the tracked state changes
+    private long stateVersion;
+    private long oddsVersion = -1;
+    private String oddsRole;
+    private Odds odds;
+
+    /**
+     * Starts tracking a new game (server shuffles a new deck)
+     */
+    public void newGame() {
+        for (int i = 0; i < Cards.DECK_SIZE; i++) {
+            seen[i] = false;
+            inHand[i] = false;
+        }
+        handTotal = 0;
+        handSize = 0;
+        handIsFirstTwoAces = false;
+        opponentCardCount = 0;
+        drawnFromDeck = 0;
+        refilledInRound = false;
+        clearMemo();
+    }
+
+    /**
+     * Starts a new round with dealt cards
+     * @param playerCards cards dealt to us
+     * @param opponentCount number of cards dealt to opponent
+     */
+    public void newDeal(List<String> playerCards, int opponentCount) {
+        for (int i = 0; i < Cards.DECK_SIZE; i++) {
+            inHand[i] = false;
+        }
+        handTotal = 0;
+        handSize = 0;
+        handIsFirstTwoAces = false;
+        opponentCardCount = opponentCount;
+        refilledInRound = false;
+        countDrawn(opponentCount);
+        stateVersion++;
+
+        for (String card : playerCards) {
+            addPlayerCard(card);
+        }
+    }
+
+    /**
+     * Adds a card received by us (DEAL_CARDS or CARD)
+     */
+    public void addPlayerCard(String card) {
+        int index = Cards.index(card);
+        if (index < 0 || inHand[index]) {
+            return;
+        }
+
+        countDrawn(1);  // Before marking, so a card that triggered a refill counts against the new deck
+        inHand[index] = true;
+        seen[index] = true;
+        handTotal += Cards.value(index);
+        handSize++;
+        handIsFirstTwoAces = handSize == 2 && handTotal == 22;
+        stateVersion++;
+    }
+
+    /**
+     * Records that the opponent took a hidden card
+     */
+    public void opponentHit() {
+        opponentCardCount++;
+        countDrawn(1);
+        stateVersion++;
+    }
+
+    /**
+     * Marks all cards revealed at ROUND_END as out of the deck.
+     * If the deck was refilled during the round, it is unknown which revealed cards
+     * came from the old deck, so only our cards drawn after the refill stay marked.
+     */
+    public void roundEnd(List<String> playerCards, List<String> opponentCards) {
+        if (!refilledInRound) {
+            markSeen(playerCards);
+            markSeen(opponentCards);
+        }
+        stateVersion++;
+    }
+
+    public void setOpponentStandThreshold(int threshold) {
+        this.opponentStandThreshold = threshold;
+        clearMemo();
+        stateVersion++;
+    }
+
+    private void clearMemo() {
+        opponentDistributions.clear();
+        opponentDraws.clear();
+        hitValues.clear();
+    }
+
+    private void markSeen(List<String> cards) {
+        if (cards == null) {
+            return;
+        }
+        for (String card : cards) {
+            int index = Cards.index(card);
+            if (index >= 0) {
+                seen[index] = true;
+            }
+        }
+    }
+
+    /**
+     * Server refills and reshuffles all 32 cards when the deck runs out (including
+     * the cards in the hands), so nothing is known about the new deck
+     */
+    private void countDrawn(int count) {
+        drawnFromDeck += count;
+        if (drawnFromDeck > Cards.DECK_SIZE) {
+            drawnFromDeck -= Cards.DECK_SIZE;
+            for (int i = 0; i < Cards.DECK_SIZE; i++) {
+                seen[i] = false;
+            }
+            refilledInRound = true;
+        }
+    }
+
+    /**
+     * Computes odds for the current hand.
+     * Call after every dealt card so the result is ready when YOUR_TURN arrives.
+     * @param role our role (BANKER or PLAYER)
+     * @return bust probability and expected values of HIT and STAND
+     */
+    public Odds evaluate(String role) {
+        if (odds != null && oddsVersion == stateVersion && role != null && role.equals(oddsRole)) {
+            return odds;
+        }
+
+        boolean banker = "BANKER".equals(role);
+        int[] pool = remainingByClass();
+        int total = handIsFirstTwoAces ? 21 : handTotal;
+
+        if (hitValues.size() + opponentDraws.size() > MAX_MEMO_ENTRIES) {
+            clearMemo();
+        }
+
+        double bust = 0;
+        int remaining = sum(pool);
+        if (remaining > 0 && !handIsFirstTwoAces) {
+            for (int c = 0; c < CLASS_COUNT; c++) {
+                if (handTotal + CLASS_VALUES[c] > 21) {
+                    bust += (double) pool[c] / remaining;
+                }
+            }
+        }
+
+        double standEv = standValue(total, pool, banker);
+        double hitEv = handIsFirstTwoAces ? -1 : hitValue(handTotal, pool, banker);
+
+        odds = new Odds(bust, hitEv, standEv);
+        oddsVersion = stateVersion;
+        oddsRole = role;
+        return odds;
+    }
+
+    private int[] remainingByClass() {
+        int[] pool = new int[CLASS_COUNT];
+        for (int i = 0; i < Cards.DECK_SIZE; i++) {
+            if (!seen[i]) {
+                pool[CARD_CLASS[i]]++;
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Expected value of taking one more card and then playing optimally
+     */
+    private double hitValue(int total, int[] pool, boolean banker) {
+        int remaining = sum(pool);
+        if (remaining == 0) {
+            return standValue(total, pool, banker);
+        }
+
+        long key = (stateKey(pool, banker) << 5) | total;
+        Double cached = hitValues.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        double ev = 0;
+        for (int c = 0; c < CLASS_COUNT; c++) {
+            if (pool[c] == 0) {
+                continue;
+            }
+            double p = (double) pool[c] / remaining;
+            int newTotal = total + CLASS_VALUES[c];
+            if (newTotal > 21) {
+                ev -= p;
+                continue;
+            }
+
+            pool[c]--;
+            double stand = standValue(newTotal, pool, banker);
+            double hit = newTotal < 21 ? hitValue(newTotal, pool, banker) : -1;
+            pool[c]++;
+
+            ev += p * Math.max(stand, hit);
+        }
+
+        hitValues.put(key, ev);
+        return ev;
+    }
+
+    /**
+     * Expected value of standing with given total
+     */
+    private double standValue(int total, int[] pool, boolean banker) {
+        double[] opponent = opponentDistribution(pool, banker);
+        double ev = 0;
+
+        for (int x = 0; x <= 21; x++) {
+            if (opponent[x] == 0) {
+                continue;
+            }
+            boolean win = banker ? total >= x : total > x;
+            ev += win ? opponent[x] : -opponent[x];
+        }
+        ev += opponent[BUST];
+        return ev;
+    }
+
+    /**
+     * Distribution of the opponent's final total (index 22 = busted)
+     */
+    private double[] opponentDistribution(int[] pool, boolean banker) {
+        long key = stateKey(pool, banker);
+        double[] cached = opponentDistributions.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        double[] distribution = new double[BUST + 1];
+        if (banker) {
+            // Opponent is PLAYER and already finished - random not busted hand of known size
+            int[] counts = new int[CLASS_COUNT];
+            enumerateHands(pool, counts, 0, Math.max(opponentCardCount, 1), 0, distribution);
+            normalize(distribution);
+        } else {
+            // Opponent is BANKER and will draw after us
+            distribution = drawOpponent(pool.clone(), 0, 0);
+        }
+
+        opponentDistributions.put(key, distribution);
+        return distribution;
+    }
+
+    /**
+     * Enumerates multisets of hand cards weighted by product of binomials
+     */
+    private void enumerateHands(int[] pool, int[] counts, int cls, int left, int total, double[] distribution) {
+        if (left == 0) {
+            double weight = 1;
+            for (int c = 0; c < CLASS_COUNT; c++) {
+                weight *= BINOMIAL[pool[c]][counts[c]];
+            }
+            boolean doubleAce = counts[ACE_CLASS] == 2 && sum(counts) == 2;
+            int value = doubleAce ? 21 : total;
+            if (value <= 21) {
+                distribution[value] += weight;
+            }
+            return;
+        }
+        if (cls == CLASS_COUNT) {
+            return;
+        }
+
+        for (int k = 0; k <= Math.min(left, pool[cls]); k++) {
+            counts[cls] = k;
+            enumerateHands(pool, counts, cls + 1, left - k, total + k * CLASS_VALUES[cls], distribution);
+        }
+        counts[cls] = 0;
+    }
+
+    /**
+     * Opponent draws initial cards and then hits while below the threshold
+     * @return distribution of opponent's final total from this state
+     */
+    private double[] drawOpponent(int[] pool, int total, int cards) {
+        double[] distribution = new double[BUST + 1];
+        if (cards == 2 && total == 22) {
+            distribution[21] = 1;  // Double ace
+            return distribution;
+        }
+        if (total > 21) {
+            distribution[BUST] = 1;
+            return distribution;
+        }
+
+        int remaining = sum(pool);
+        if (remaining == 0 || (cards >= Math.max(opponentCardCount, 2) && total >= opponentStandThreshold)) {
+            distribution[total] = 1;
+            return distribution;
+        }
+
+        long key = (((stateKey(pool, false) << 5) | total) << 3) | Math.min(cards, 7);
+        double[] cached = opponentDraws.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        for (int c = 0; c < CLASS_COUNT; c++) {
+            if (pool[c] == 0) {
+                continue;
+            }
+            double p = (double) pool[c] / remaining;
+            pool[c]--;
+            double[] next = drawOpponent(pool, total + CLASS_VALUES[c], cards + 1);
+            pool[c]++;
+
+            for (int i = 0; i <= BUST; i++) {
+                distribution[i] += p * next[i];
+            }
+        }
+
+        opponentDraws.put(key, distribution);
+        return distribution;
+    }
+
+    private static void normalize(double[] distribution) {
+        double sum = 0;
+        for (double value : distribution) {
+            sum += value;
+        }
+        if (sum > 0) {
+            for (int i = 0; i <= BUST; i++) {
+                distribution[i] /= sum;
+            }
+        }
+    }
+
+    /**
+     * Packs deck composition (4 bits per class), opponent card count and role into a memo key
+     */
+    private long stateKey(int[] pool, boolean banker) {
+        long key = 0;
+        for (int c = 0; c < CLASS_COUNT; c++) {
+            key = (key << 4) | pool[c];
+        }
+        key = (key << 4) | Math.min(opponentCardCount, 15);
+        return (key << 1) | (banker ? 1 : 0);
+    }
+
+    private static int sum(int[] values) {
+        int sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+}
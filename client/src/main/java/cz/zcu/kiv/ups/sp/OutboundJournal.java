@@ -0,0 +1,108 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Journal of game actions (HIT/STAND) and ACKs that could not be delivered
+ * because the connection dropped.
+ *
+ * Entries are held while reconnecting. After the session is restored the server
+ * sends the current game state: if it is still our turn with the same hand the
+ * held action was never applied and is replayed, otherwise it is discarded.
+ * ACKs are always discarded - the server resends the state after a reconnect.
+ */
+public class OutboundJournal {
+
+    private static final int MAX_ENTRIES = 16;
+
+    /**
+     * Held message with the context needed to decide if it still applies
+     */
+    private static class Entry {
+        final ProtocolMessage message;
+        final int handSize;
+
+        Entry(ProtocolMessage message, int handSize) {
+            this.message = message;
+            this.handSize = handSize;
+        }
+    }
+
+    private final Deque<Entry> entries = new ArrayDeque<>();
+
+    /**
+     * Checks if a message may be journaled
+     */
+    public static boolean isJournaled(ProtocolMessage msg) {
+        String cmd = msg.getCommand();
+        return cmd.equals("HIT") || cmd.equals("STAND") || cmd.startsWith("ACK_");
+    }
+
+    /**
+     * Holds a message that was not delivered (or not confirmed before the connection dropped)
+     * @param msg HIT, STAND or ACK message
+     * @param handSize number of cards in hand when the action was chosen
+     */
+    public synchronized void hold(ProtocolMessage msg, int handSize) {
+        if (!isJournaled(msg)) {
+            return;
+        }
+
+        // Only one game action per turn makes sense - newer replaces older
+        if (!msg.getCommand().startsWith("ACK_")) {
+            entries.removeIf(entry -> !entry.message.getCommand().startsWith("ACK_"));
+        }
+        if (entries.size() == MAX_ENTRIES) {
+            entries.removeFirst();
+        }
+
+        entries.addLast(new Entry(msg, handSize));
+        Logger.info("Holding " + msg.getCommand() + " until the session is restored");
+    }
+
+    public synchronized boolean hasPendingAction() {
+        for (Entry entry : entries) {
+            if (!entry.message.getCommand().startsWith("ACK_")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Called on YOUR_TURN after a restore - takes the held action if it still applies
+     * and clears the journal.
+     * @param currentHandSize number of cards in hand according to restored state
+     * @return action to replay or null
+     */
+    public synchronized ProtocolMessage takeReplayableAction(int currentHandSize) {
+        ProtocolMessage replay = null;
+        for (Entry entry : entries) {
+            if (!entry.message.getCommand().startsWith("ACK_") && entry.handSize == currentHandSize) {
+                replay = entry.message;
+            }
+        }
+
+        if (replay != null) {
+            Logger.info("Replaying " + replay.getCommand() + " after session restore");
+        } else {
+            discard("hand changed since the action was chosen");
+        }
+        entries.clear();
+        return replay;
+    }
+
+    /**
+     * Drops all held messages
+     * @param reason reason for the log
+     */
+    public synchronized void discard(String reason) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Logger.info("Discarding " + entries.size() + " held message(s): " + reason);
+        entries.clear();
+    }
+}
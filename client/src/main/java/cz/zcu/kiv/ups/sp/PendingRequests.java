@@ -0,0 +1,90 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+
+/**
+ * Requests sent to the server that wait for a response.
+ *
+ * The server answers requests in the order it received them, so a response
+ * completes the oldest request expecting it. ERROR is the answer to the oldest
+ * request of all. Requests must be registered in the order they are sent.
+ *
+ * A request that timed out or was cancelled stays registered until its late
+ * response arrives and absorbs it, so the response cannot complete a newer
+ * request. All requests are dropped when the connection closes.
+ */
+public class PendingRequests {
+
+    private static class Entry {
+        final Predicate<ProtocolMessage> expected;
+        final CompletableFuture<ProtocolMessage> future;
+
+        Entry(Predicate<ProtocolMessage> expected, CompletableFuture<ProtocolMessage> future) {
+            this.expected = expected;
+            this.future = future;
+        }
+    }
+
+    private final ConcurrentLinkedQueue<Entry> entries = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Registers a request - must be called right before the request is sent,
+     * under the same lock as the send
+     * @param expected matches the response (ERROR always matches)
+     * @param future future completed with the response
+     */
+    public void register(Predicate<ProtocolMessage> expected, CompletableFuture<ProtocolMessage> future) {
+        entries.add(new Entry(expected, future));
+    }
+
+    /**
+     * Removes a request that was never sent
+     * @param future future of the request
+     */
+    public void unregister(CompletableFuture<ProtocolMessage> future) {
+        entries.removeIf(entry -> entry.future == future);
+    }
+
+    /**
+     * Completes the request the message answers.
+     * Dependent actions not using an executor run on the calling thread.
+     * @param msg received message
+     * @return true if the message was a response to a pending request
+     *         (also when the request already timed out and the response is dropped)
+     */
+    public boolean complete(ProtocolMessage msg) {
+        boolean error = msg.isError();
+        for (Iterator<Entry> it = entries.iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (error || entry.expected.test(msg)) {
+                it.remove();
+                if (!entry.future.complete(msg)) {
+                    Logger.debug(() -> "Late response to a timed out request dropped: " + msg);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fails all pending requests (connection closed)
+     * @param cause failure reported to the callers
+     */
+    public void failAll(Throwable cause) {
+        Entry entry;
+        while ((entry = entries.poll()) != null) {
+            entry.future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Number of requests waiting for a response, including timed out ones
+     */
+    public int size() {
+        return entries.size();
+    }
+}
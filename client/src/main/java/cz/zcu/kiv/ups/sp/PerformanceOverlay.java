@@ -0,0 +1,127 @@
+package cz.zcu.kiv.ups.sp;
+
+import javafx.animation.AnimationTimer;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+import javafx.util.Duration;
+
+import java.util.function.Supplier;
+
+/**
+ * Live performance overlay - frame rate, FX lag, network and queue numbers.
+ *
+ * A single Timeline refreshes all values at a low fixed rate and posts the probe
+ * task that measures FX lag. An AnimationTimer only counts frames and the longest
+ * gap between two frames while the overlay is shown, so a hidden overlay costs nothing.
+ */
+public class PerformanceOverlay {
+
+    private static final Duration REFRESH_INTERVAL = Duration.millis(500);
+
+    private final Label label;
+    private final Supplier<NetworkClient> networkClient;
+    private final Timeline refreshTimeline;
+    private final AnimationTimer frameCounter;
+
+    // Frame statistics since last refresh (FX thread only)
+    private long frames;
+    private long lastPulseNanos;
+    private long maxPulseGapNanos;
+
+    private long lastRefreshNanos;
+    private long lastMessagesReceived;
+
+    /**
+     * @param label label showing the overlay text
+     * @param networkClient current network client (may return null)
+     */
+    public PerformanceOverlay(Label label, Supplier<NetworkClient> networkClient) {
+        this.label = label;
+        this.networkClient = networkClient;
+
+        refreshTimeline = new Timeline(new KeyFrame(REFRESH_INTERVAL, e -> refresh()));
+        refreshTimeline.setCycleCount(Timeline.INDEFINITE);
+
+        frameCounter = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (lastPulseNanos != 0) {
+                    maxPulseGapNanos = Math.max(maxPulseGapNanos, now - lastPulseNanos);
+                }
+                lastPulseNanos = now;
+                frames++;
+            }
+        };
+
+        label.managedProperty().bind(label.visibleProperty());
+        label.setVisible(false);
+    }
+
+    public boolean isShowing() {
+        return label.isVisible();
+    }
+
+    public void setShowing(boolean showing) {
+        if (showing == isShowing()) {
+            return;
+        }
+
+        label.setVisible(showing);
+        if (showing) {
+            frames = 0;
+            lastPulseNanos = 0;
+            maxPulseGapNanos = 0;
+            lastRefreshNanos = System.nanoTime();
+            lastMessagesReceived = ClientMetrics.getInstance().getMessagesReceived();
+            label.setText("Collecting...");
+            frameCounter.start();
+            refreshTimeline.play();
+        } else {
+            refreshTimeline.stop();
+            frameCounter.stop();
+        }
+    }
+
+    public void toggle() {
+        setShowing(!isShowing());
+    }
+
+    private void refresh() {
+        long now = System.nanoTime();
+        // FX lag - how long a task posted now waits behind the work queued on the FX thread
+        Platform.runLater(() -> ClientMetrics.getInstance().fxProbeCompleted(System.nanoTime() - now));
+
+        double seconds = Math.max((now - lastRefreshNanos) / 1_000_000_000.0, 1e-3);
+
+        ClientMetrics metrics = ClientMetrics.getInstance();
+        long messagesReceived = metrics.getMessagesReceived();
+        double messageRate = (messagesReceived - lastMessagesReceived) / seconds;
+
+        NetworkClient client = networkClient.get();
+        long rtt = client != null ? client.getLastRoundTripMillis() : -1;
+        long srtt = client != null ? client.getSmoothedRoundTripMillis() : -1;
+
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeapMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        long maxHeapMb = runtime.maxMemory() / (1024 * 1024);
+
+        label.setText(String.format(
+            "FPS %.0f  longest frame gap %.1f ms%n" +
+            "FX lag %.1f ms%n" +
+            "In %.1f msg/s  RTT %s (avg %s)%n" +
+            "Queues async %d  sync %d  tasks %d%n" +
+            "Heap %d / %d MB",
+            frames / seconds, maxPulseGapNanos / 1_000_000.0,
+            metrics.getLastFxTaskLatencyMillis(),
+            messageRate, rtt < 0 ? "-" : rtt + " ms", srtt < 0 ? "-" : srtt + " ms",
+            metrics.getAsyncQueueDepth(), metrics.getSyncQueueDepth(), metrics.getActiveClientTasks(),
+            usedHeapMb, maxHeapMb));
+
+        frames = 0;
+        maxPulseGapNanos = 0;
+        lastRefreshNanos = now;
+        lastMessagesReceived = messagesReceived;
+    }
+}
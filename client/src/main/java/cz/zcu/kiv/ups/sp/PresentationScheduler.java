@@ -0,0 +1,85 @@
+package cz.zcu.kiv.ups.sp;
+
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Keeps results on screen for a minimum time without stalling message processing.
+ *
+ * A hold (e.g. round result) is a PauseTransition on the FX timeline. Display
+ * updates arriving during the hold are queued and run in order when it ends,
+ * while messages keep flowing from the network. All methods run on the FX thread.
+ */
+public class PresentationScheduler {
+
+    private final Deque<Runnable> deferred = new ArrayDeque<>();
+    private PauseTransition hold;
+
+    /**
+     * Checks if a result is being presented
+     */
+    public boolean isHolding() {
+        return hold != null;
+    }
+
+    /**
+     * Runs a display update now, or after the current hold
+     * @param update display update
+     */
+    public void runOrDefer(Runnable update) {
+        if (hold != null) {
+            deferred.addLast(update);
+        } else {
+            update.run();
+        }
+    }
+
+    /**
+     * Keeps the current display for the given time, then runs the end action and
+     * the updates deferred meanwhile
+     * @param duration minimum display time
+     * @param onEnd action ending the presentation (e.g. hiding the result)
+     */
+    public void hold(Duration duration, Runnable onEnd) {
+        PauseTransition pause = new PauseTransition(duration);
+        pause.setOnFinished(e -> {
+            if (hold != pause) {
+                return;  // Cancelled or replaced
+            }
+            hold = null;
+            onEnd.run();
+            runDeferred();
+        });
+
+        if (hold != null) {
+            hold.stop();
+        }
+        hold = pause;
+        pause.play();
+    }
+
+    /**
+     * Stops the current hold without its end action and drops deferred updates
+     * (game was reset, they no longer apply)
+     */
+    public void cancel() {
+        if (hold != null) {
+            hold.stop();
+            hold = null;
+        }
+        if (!deferred.isEmpty()) {
+            Logger.debug(() -> "Dropping " + deferred.size() + " deferred display update(s)");
+            deferred.clear();
+        }
+    }
+
+    private void runDeferred() {
+        // An update may start a new hold (e.g. GAME_END after ROUND_END), the rest waits for it
+        while (hold == null && !deferred.isEmpty()) {
+            deferred.pollFirst().run();
+        }
+    }
+}
@@ -30,13 +30,28 @@ public class ProtocolMessage {
      * @return parsed ProtocolMessage or null if invalid
      */
     public static ProtocolMessage parse(String message) {
+        ClientEvents.MessageParsed event = new ClientEvents.MessageParsed();
+        event.begin();
+        ProtocolMessage result = parseLine(message);
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.command = result != null ? result.getCommand() : null;
+            event.length = message != null ? message.length() : 0;
+            event.success = result != null;
+            event.commit();
+        }
+        return result;
+    }
+
+    private static ProtocolMessage parseLine(String message) {
         if (message == null || message.isEmpty()) {
             return null;
         }
 
         // VALIDATION: Check message size to prevent buffer overflow
         if (message.length() > MAX_MESSAGE_SIZE) {
-            Logger.error("Message too large: " + message.length() + " bytes (max " + MAX_MESSAGE_SIZE + ")");
+            Logger.error(() -> "Message too large: " + message.length() + " bytes (max " + MAX_MESSAGE_SIZE + ")");
             return null;
         }
 
@@ -47,7 +62,7 @@ public class ProtocolMessage {
 
         // VALIDATION: Check parameter count
         if (parts.length > MAX_PARAMETERS + 1) {  // +1 for command
-            Logger.error("Too many parameters: " + (parts.length - 1) + " (max " + MAX_PARAMETERS + ")");
+            Logger.error(() -> "Too many parameters: " + (parts.length - 1) + " (max " + MAX_PARAMETERS + ")");
             return null;
         }
 
@@ -0,0 +1,117 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import cz.zcu.kiv.ups.sp.Logger;
+
+/**
+ * Records protocol traffic to an append-only capture file.
+ *
+ * Every capture session starts with a SESSION record (wall clock time in ms),
+ * followed by INBOUND/OUTBOUND records:
+ * [timestamp ns since session start: long][type: byte][length: short][UTF-8 line]
+ */
+public class ProtocolRecorder {
+
+    public static final byte TYPE_SESSION = 0;
+    public static final byte TYPE_INBOUND = 1;
+    public static final byte TYPE_OUTBOUND = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ProtocolRecorder instance = new ProtocolRecorder();
+
+    private DataOutputStream out;
+    private long sessionStartNanos;
+    private volatile boolean active = false;
+
+    private ProtocolRecorder() {
+    }
+
+    public static ProtocolRecorder getInstance() {
+        return instance;
+    }
+
+    /**
+     * Starts recording into given file (appends a new session)
+     * @param filename capture file
+     */
+    public synchronized void start(String filename) {
+        stop();
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename, true), BUFFER_SIZE));
+            sessionStartNanos = System.nanoTime();
+            writeRecord(TYPE_SESSION, String.valueOf(System.currentTimeMillis()));
+            active = true;
+            Logger.info("Recording protocol traffic to " + filename);
+        } catch (IOException e) {
+            Logger.error("Unable to open capture file: " + filename);
+            out = null;
+        }
+    }
+
+    /**
+     * Stops recording and flushes the capture file
+     */
+    public synchronized void stop() {
+        active = false;
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                Logger.error("Error closing capture file: " + e.getMessage());
+            }
+            out = null;
+        }
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Records a line received from the server
+     * @param line received line
+     */
+    public void recordInbound(String line) {
+        if (active) {
+            record(TYPE_INBOUND, line);
+        }
+    }
+
+    /**
+     * Records a line sent to the server
+     * @param line sent line
+     */
+    public void recordOutbound(String line) {
+        if (active) {
+            record(TYPE_OUTBOUND, line);
+        }
+    }
+
+    private synchronized void record(byte type, String line) {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            writeRecord(type, line);
+        } catch (IOException e) {
+            Logger.error("Failed to write capture record, recording stopped: " + e.getMessage());
+            stop();
+        }
+    }
+
+    private void writeRecord(byte type, String line) throws IOException {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF);
+
+        out.writeLong(System.nanoTime() - sessionStartNanos);
+        out.writeByte(type);
+        out.writeShort(length);
+        out.write(bytes, 0, length);
+    }
+}
@@ -0,0 +1,213 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import cz.zcu.kiv.ups.sp.Logger;
+
+/**
+ * Replays a capture made by ProtocolRecorder.
+ *
+ * Acts as a fake server: waits for one client (the normal game client connected
+ * to localhost) and sends it the recorded inbound lines, either with the original
+ * timing or as fast as possible. Recorded outbound lines (except PING) are used as
+ * sync points - the replayer waits until the client sends its own line.
+ *
+ * Usage: ProtocolReplayer capture-file [port] [--fast] [--session N]
+ */
+public class ProtocolReplayer {
+
+    private static final int CLIENT_LINE_TIMEOUT_MS = 10000;
+
+    /**
+     * One record of the capture file
+     */
+    public static class Record {
+        private final long timestampNanos;
+        private final byte type;
+        private final String line;
+
+        public Record(long timestampNanos, byte type, String line) {
+            this.timestampNanos = timestampNanos;
+            this.type = type;
+            this.line = line;
+        }
+
+        public long getTimestampNanos() {
+            return timestampNanos;
+        }
+
+        public byte getType() {
+            return type;
+        }
+
+        public String getLine() {
+            return line;
+        }
+    }
+
+    private final List<Record> records;
+    private final boolean fast;
+
+    /**
+     * Creates a replayer for one recorded session
+     * @param records session records (without the SESSION record)
+     * @param fast true to ignore recorded timing
+     */
+    public ProtocolReplayer(List<Record> records, boolean fast) {
+        this.records = records;
+        this.fast = fast;
+    }
+
+    /**
+     * Reads all sessions stored in a capture file
+     * @param filename capture file
+     * @return list of sessions, each a list of INBOUND/OUTBOUND records
+     * @throws IOException if file cannot be read
+     */
+    public static List<List<Record>> readCapture(String filename) throws IOException {
+        List<List<Record>> sessions = new ArrayList<>();
+        List<Record> current = null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)))) {
+            while (true) {
+                long timestamp;
+                try {
+                    timestamp = in.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                byte type = in.readByte();
+                byte[] bytes = new byte[in.readUnsignedShort()];
+                in.readFully(bytes);
+
+                if (type == ProtocolRecorder.TYPE_SESSION) {
+                    current = new ArrayList<>();
+                    sessions.add(current);
+                } else if (current != null) {
+                    current.add(new Record(timestamp, type, new String(bytes, StandardCharsets.UTF_8)));
+                }
+            }
+        } catch (EOFException e) {
+            Logger.warning("Capture file " + filename + " ends with a truncated record");
+        }
+
+        return sessions;
+    }
+
+    /**
+     * Waits for one client on given port and replays the session to it
+     * @param port listening port
+     * @throws IOException on network error
+     */
+    public void serve(int port) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port)) {
+            Logger.info("Replayer listening on port " + port + " (" + records.size() + " records)");
+
+            try (Socket socket = serverSocket.accept()) {
+                socket.setSoTimeout(CLIENT_LINE_TIMEOUT_MS);
+                socket.setTcpNoDelay(true);
+                replay(socket);
+            }
+        }
+    }
+
+    private void replay(Socket socket) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+
+        long startNanos = System.nanoTime();
+        long firstTimestamp = records.isEmpty() ? 0 : records.get(0).getTimestampNanos();
+        int sent = 0;
+
+        for (Record record : records) {
+            if (record.getType() == ProtocolRecorder.TYPE_OUTBOUND) {
+                if (!"PING".equals(record.getLine())) {
+                    writer.flush();
+                    waitForClientLine(reader, record.getLine());
+                }
+                continue;
+            }
+
+            if (!fast) {
+                long due = startNanos + (record.getTimestampNanos() - firstTimestamp);
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    writer.flush();
+                    try {
+                        Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+
+            writer.write(record.getLine());
+            writer.write('\n');
+            sent++;
+        }
+        writer.flush();
+
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        Logger.info(String.format("Replayed %d messages in %.3f s (%.0f msg/s)", sent, seconds, sent / Math.max(seconds, 1e-9)));
+    }
+
+    /**
+     * Reads client lines until a non-PING line arrives (sync point)
+     */
+    private void waitForClientLine(BufferedReader reader, String expected) throws IOException {
+        while (true) {
+            String line;
+            try {
+                line = reader.readLine();
+            } catch (SocketTimeoutException e) {
+                Logger.warning("Client did not send '" + expected + "' in time, continuing replay");
+                return;
+            }
+
+            if (line == null) {
+                throw new EOFException("Client closed connection");
+            }
+            if (!"PING".equals(line)) {
+                if (!line.equals(expected)) {
+                    Logger.warning(() -> "Client sent '" + line + "', capture has '" + expected + "'");
+                }
+                return;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ProtocolReplayer <capture-file> [port] [--fast] [--session N]");
+            return;
+        }
+
+        int port = 10000;
+        boolean fast = false;
+        int sessionIndex = 0;
+
+        for (int i = 1; i < args.length; i++) {
+            if ("--fast".equals(args[i])) {
+                fast = true;
+            } else if ("--session".equals(args[i]) && i + 1 < args.length) {
+                sessionIndex = Integer.parseInt(args[++i]);
+            } else {
+                port = Integer.parseInt(args[i]);
+            }
+        }
+
+        List<List<Record>> sessions = readCapture(args[0]);
+        if (sessionIndex < 0 || sessionIndex >= sessions.size()) {
+            Logger.error("Capture contains " + sessions.size() + " session(s), cannot replay session " + sessionIndex);
+            return;
+        }
+
+        new ProtocolReplayer(sessions.get(sessionIndex), fast).serve(port);
+    }
+}
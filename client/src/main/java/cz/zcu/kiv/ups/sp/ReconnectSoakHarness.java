@@ -0,0 +1,331 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import cz.zcu.kiv.ups.sp.Logger;
+
+/**
+ * Reconnect storm soak harness.
+ *
+ * Starts pairs of headless sessions against a running server, puts each pair into
+ * a game and then repeatedly drops all connections and reconnects all sessions at
+ * the same time. A session reconnects like GameController.attemptReconnect does
+ * (new GameClient, LOGIN with session ID, heartbeat and receiver restart). After
+ * every cycle it reports time-to-resume of each session measured from its own drop,
+ * live client tasks, thread count and heap use compared to the state before the
+ * first drop.
+ *
+ * The harness has no JavaFX and reimplements the reconnect steps in Session, it does
+ * not run GameController (attemptReconnect, startMessageReceiver,
+ * handleReconnectDetection). Task, thread and heap deltas therefore cover GameClient
+ * and NetworkClient (heartbeat, connect attempts, event delivery) but not tasks leaked
+ * by the controller.
+ *
+ * Usage: ReconnectSoakHarness [host] [port] [pairs] [cycles]
+ */
+public class ReconnectSoakHarness {
+
+    private static final int RESPONSE_TIMEOUT_MS = 10000;
+    private static final int RECONNECT_RETRY_DELAY_MS = 200;
+    private static final int MAX_RECONNECT_ATTEMPTS = 25;
+    private static final int RESUME_TIMEOUT_MS = 15000;
+
+    // Messages that mean the session is back in its game (see handleReconnectDetection)
+    private static final Set<String> RESUME_COMMANDS = new HashSet<>(Arrays.asList(
+        "GAME_START", "PLAYER_DISCONNECTED", "GAME_STATE"
+    ));
+
+    private final String host;
+    private final int port;
+    private final int pairs;
+    private final int cycles;
+    private final List<Session> sessions = new ArrayList<>();
+    // Shared by all sessions, so heartbeats and connect attempts show in one task count
+    private final ClientExecutor executor = new ClientExecutor();
+
+    /**
+     * One headless client session
+     */
+    private class Session {
+        private final String nickname;
+        private GameClient client;
+        private String sessionId;
+        private Thread receiverThread;
+        private volatile boolean running;
+        private volatile CountDownLatch resumed = new CountDownLatch(1);
+        private volatile long dropTimeNanos;
+        private volatile long resumeTimeNanos;
+
+        Session(String nickname) {
+            this.nickname = nickname;
+        }
+
+        /**
+         * Connects and logs in as a new player
+         */
+        boolean login() {
+            client = new GameClient(host, port, executor);
+            if (!client.connect() || !client.login(nickname)) {
+                return false;
+            }
+            sessionId = client.getSessionId();
+            return true;
+        }
+
+        /**
+         * Drops the connection without sending DISCONNECT (simulated network outage)
+         */
+        void drop() {
+            dropTimeNanos = System.nanoTime();
+            stopReceiver();
+            client.getNetworkClient().stopHeartbeat();
+            client.getNetworkClient().disconnect();
+        }
+
+        /**
+         * Reconnects with the stored session ID, retrying until the server knows about the drop
+         * @return true if LOGIN with session ID was accepted
+         */
+        boolean reconnect() {
+            resumed = new CountDownLatch(1);
+
+            for (int attempt = 0; attempt < MAX_RECONNECT_ATTEMPTS; attempt++) {
+                GameClient newClient = new GameClient(host, port, executor);
+                if (newClient.connect()) {
+                    if (newClient.login(nickname, sessionId)) {
+                        client = newClient;
+                        client.getNetworkClient().startHeartbeat(() ->
+                            Logger.warning("Soak: heartbeat lost connection of " + nickname));
+                        startReceiver();
+                        return true;
+                    }
+                    newClient.getNetworkClient().disconnect();
+                }
+
+                try {
+                    Thread.sleep(RECONNECT_RETRY_DELAY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        void startReceiver() {
+            running = true;
+            receiverThread = new Thread(() -> {
+                while (running && client.isConnected()) {
+                    ProtocolMessage msg = client.receiveMessage();
+                    if (msg != null && RESUME_COMMANDS.contains(msg.getCommand()) && resumed.getCount() > 0) {
+                        resumeTimeNanos = System.nanoTime();
+                        resumed.countDown();
+                    }
+                }
+            }, "soak-receiver-" + nickname);
+            receiverThread.setDaemon(true);
+            receiverThread.start();
+        }
+
+        void stopReceiver() {
+            running = false;
+            if (receiverThread != null) {
+                receiverThread.interrupt();
+                try {
+                    // Receiver is blocked in readLine, closing the socket releases it
+                    client.getNetworkClient().disconnect();
+                    receiverThread.join(2000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        /**
+         * Reconnects and waits until the game resumes
+         * @return time from this session's drop to the first resume message in ms, -1 if it failed
+         */
+        long reconnectAndResume() throws InterruptedException {
+            if (!reconnect()) {
+                Logger.warning("Soak: " + nickname + " failed to reconnect");
+                return -1;
+            }
+            if (!resumed.await(RESUME_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                Logger.warning("Soak: " + nickname + " reconnected but game did not resume");
+                return -1;
+            }
+            return (resumeTimeNanos - dropTimeNanos) / 1_000_000;
+        }
+
+        /**
+         * Reads messages until one of the expected commands arrives (receiver must not run)
+         */
+        ProtocolMessage await(String... commands) {
+            Set<String> expected = new HashSet<>(Arrays.asList(commands));
+            long deadline = System.currentTimeMillis() + RESPONSE_TIMEOUT_MS;
+
+            while (System.currentTimeMillis() < deadline && client.isConnected()) {
+                ProtocolMessage msg = client.receiveMessage();
+                if (msg != null && (expected.contains(msg.getCommand()) || msg.isError())) {
+                    return msg;
+                }
+            }
+            return null;
+        }
+    }
+
+    public ReconnectSoakHarness(String host, int port, int pairs, int cycles) {
+        this.host = host;
+        this.port = port;
+        this.pairs = pairs;
+        this.cycles = cycles;
+    }
+
+    /**
+     * Logs in all sessions and puts every pair into a running game
+     * @return true if all games started
+     */
+    private boolean setUp() {
+        String prefix = "soak" + (System.currentTimeMillis() % 100000);
+
+        for (int i = 0; i < pairs; i++) {
+            Session creator = new Session(prefix + "a" + i);
+            Session joiner = new Session(prefix + "b" + i);
+
+            if (!creator.login() || !joiner.login()) {
+                Logger.error("Soak: login failed for pair " + i);
+                return false;
+            }
+
+            creator.client.sendMessage(ProtocolMessage.createRoom(prefix + "-room" + i));
+            ProtocolMessage created = creator.await("ROOM_CREATED");
+            if (created == null || created.isError()) {
+                Logger.error("Soak: cannot create room for pair " + i);
+                return false;
+            }
+
+            joiner.client.sendMessage(ProtocolMessage.joinRoom(created.getParameter(0)));
+            if (joiner.await("GAME_START") == null || creator.await("GAME_START") == null) {
+                Logger.error("Soak: game did not start for pair " + i);
+                return false;
+            }
+
+            for (Session session : new Session[] {creator, joiner}) {
+                session.client.getNetworkClient().startHeartbeat(() -> { });
+                session.startReceiver();
+                sessions.add(session);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs the soak test and prints one report line per cycle
+     */
+    public void run() {
+        if (!setUp()) {
+            tearDown();
+            return;
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        System.gc();
+        int baselineTasks = executor.getActiveTaskCount();
+        int baselineThreads = threads.getThreadCount();
+        long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+
+        System.out.printf("%-6s %-9s %-10s %-10s %-10s %-8s %-8s %-12s%n",
+            "cycle", "resumed", "min[ms]", "avg[ms]", "max[ms]", "tasks", "threads", "heap[KB]");
+
+        for (int cycle = 1; cycle <= cycles; cycle++) {
+            for (Session session : sessions) {
+                session.drop();
+            }
+
+            // All sessions reconnect at once - one task each, released together
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> results = new ArrayList<>(sessions.size());
+            try (ExecutorService storm = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (Session session : sessions) {
+                    results.add(storm.submit(() -> {
+                        start.await();
+                        return session.reconnectAndResume();
+                    }));
+                }
+                start.countDown();
+            }
+
+            int resumedCount = 0;
+            long min = Long.MAX_VALUE;
+            long max = 0;
+            long sum = 0;
+
+            for (Future<Long> result : results) {
+                long resumeMs;
+                try {
+                    resumeMs = result.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    Logger.warning("Soak: reconnect task failed: " + e.getCause());
+                    continue;
+                }
+                if (resumeMs < 0) {
+                    continue;
+                }
+
+                min = Math.min(min, resumeMs);
+                max = Math.max(max, resumeMs);
+                sum += resumeMs;
+                resumedCount++;
+            }
+
+            System.gc();
+            int taskDelta = executor.getActiveTaskCount() - baselineTasks;
+            int threadDelta = threads.getThreadCount() - baselineThreads;
+            long heapDelta = (memory.getHeapMemoryUsage().getUsed() - baselineHeap) / 1024;
+
+            System.out.printf("%-6d %-9s %-10d %-10d %-10d %+-8d %+-8d %+-12d%n",
+                cycle, resumedCount + "/" + sessions.size(),
+                resumedCount > 0 ? min : 0, resumedCount > 0 ? sum / resumedCount : 0, max,
+                taskDelta, threadDelta, heapDelta);
+        }
+
+        tearDown();
+    }
+
+    private void tearDown() {
+        for (Session session : sessions) {
+            if (session.client != null) {
+                session.client.getNetworkClient().stopHeartbeat();
+                session.client.disconnect();
+            }
+            session.stopReceiver();
+        }
+        executor.shutdown(2000);
+    }
+
+    public static void main(String[] args) {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int pairs = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int cycles = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        new ReconnectSoakHarness(host, port, pairs, cycles).run();
+    }
+}
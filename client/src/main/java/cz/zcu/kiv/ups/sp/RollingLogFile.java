@@ -0,0 +1,193 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Log file that is appended to and rolled over when it reaches a size limit.
+ *
+ * Rotation only renames the active file and opens a new one, compressing the
+ * closed segment to .gz and deleting segments over the retention cap is done on
+ * a background thread. Not thread safe - Logger synchronizes access.
+ */
+class RollingLogFile {
+
+    public static final long DEFAULT_MAX_BYTES = 5 * 1024 * 1024;
+    public static final int DEFAULT_MAX_SEGMENTS = 5;
+
+    private static final DateTimeFormatter SEGMENT_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final String COMPRESSED_SUFFIX = ".gz";
+    // Segment name after "<file>.": SEGMENT_FORMAT timestamp, "-n" on a name collision, optional .gz
+    private static final Pattern SEGMENT_NAME = Pattern.compile("(\\d{8}-\\d{6}-\\d{3})(?:-(\\d{1,9}))?(\\.gz)?");
+    private static final Comparator<Matcher> SEGMENT_ORDER = Comparator
+        .comparing((Matcher m) -> m.group(1))
+        .thenComparingInt(m -> m.group(2) != null ? Integer.parseInt(m.group(2)) : 0);
+
+    // One compression thread shared by all log files
+    private static final ExecutorService compressor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "log-compressor");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private final File file;
+    private final long maxBytes;
+    private final int maxSegments;
+
+    private CountingOutputStream counter;
+    private Writer writer;
+
+    /**
+     * Opens the file in append mode
+     * @param filename active log file
+     * @param maxBytes size that triggers rotation
+     * @param maxSegments number of compressed segments to keep
+     */
+    RollingLogFile(String filename, long maxBytes, int maxSegments) throws IOException {
+        this.file = new File(filename).getAbsoluteFile();
+        this.maxBytes = maxBytes;
+        this.maxSegments = maxSegments;
+        open();
+
+        // Finish segments left uncompressed by a previous run
+        for (File segment : listSegments(false)) {
+            scheduleCompression(segment);
+        }
+        if (counter.count >= maxBytes) {
+            rotate();
+        }
+    }
+
+    void print(CharSequence text) throws IOException {
+        writer.append(text);
+    }
+
+    void println(String line) throws IOException {
+        writer.write(line);
+        writer.write(System.lineSeparator());
+    }
+
+    /**
+     * Flushes written text and rotates the file if it is over the limit
+     */
+    void flush() throws IOException {
+        writer.flush();
+        if (counter.count >= maxBytes) {
+            rotate();
+        }
+    }
+
+    void close() throws IOException {
+        writer.close();
+    }
+
+    private void open() throws IOException {
+        counter = new CountingOutputStream(new FileOutputStream(file, true), file.length());
+        writer = new OutputStreamWriter(new BufferedOutputStream(counter, 8192), StandardCharsets.UTF_8);
+    }
+
+    private void rotate() throws IOException {
+        writer.close();
+
+        String segmentName = file.getPath() + "." + LocalDateTime.now().format(SEGMENT_FORMAT);
+        File segment = new File(segmentName);
+        for (int i = 1; segment.exists() || new File(segment.getPath() + COMPRESSED_SUFFIX).exists(); i++) {
+            segment = new File(segmentName + "-" + i);
+        }
+        Files.move(file.toPath(), segment.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+        open();
+        scheduleCompression(segment);
+    }
+
+    private void scheduleCompression(File segment) {
+        compressor.execute(() -> {
+            File compressed = new File(segment.getPath() + COMPRESSED_SUFFIX);
+            try (InputStream in = new FileInputStream(segment);
+                 OutputStream out = new GZIPOutputStream(new FileOutputStream(compressed), 65536)) {
+                in.transferTo(out);
+            } catch (IOException e) {
+                // Logger would recurse into this file - report to console only
+                System.err.println("Failed to compress log segment " + segment + ": " + e.getMessage());
+                compressed.delete();
+                return;
+            }
+            segment.delete();
+            pruneSegments();
+        });
+    }
+
+    /**
+     * Deletes the oldest compressed segments over the retention cap (compressor thread)
+     */
+    private void pruneSegments() {
+        File[] segments = listSegments(true);
+        for (int i = 0; i < segments.length - maxSegments; i++) {
+            segments[i].delete();
+        }
+    }
+
+    /**
+     * Lists rotated segments, oldest first (by timestamp, then collision number).
+     * Other files starting with the log file name are left alone.
+     */
+    private File[] listSegments(boolean compressed) {
+        String prefix = file.getName() + ".";
+        File[] files = file.getParentFile().listFiles((dir, name) -> name.startsWith(prefix));
+        if (files == null) {
+            return new File[0];
+        }
+
+        return Arrays.stream(files)
+            .map(f -> SEGMENT_NAME.matcher(f.getName().substring(prefix.length())))
+            .filter(m -> m.matches() && (m.group(3) != null) == compressed)
+            .sorted(SEGMENT_ORDER)
+            .map(m -> new File(file.getParentFile(), prefix + m.group()))
+            .toArray(File[]::new);
+    }
+
+    /**
+     * Counts bytes written to the active file
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out, long initialCount) {
+            super(out);
+            this.count = initialCount;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
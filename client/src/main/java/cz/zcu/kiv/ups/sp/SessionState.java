@@ -0,0 +1,270 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.util.List;
+
+/**
+ * Immutable snapshot of the client session - connection state, room, cards and scores.
+ *
+ * Every change creates a new snapshot with one of the with* methods, so a reader
+ * holding a snapshot always sees values that belong together (e.g. round, scores
+ * and role of the same GAME_STATE) no matter which thread changes the session.
+ */
+public final class SessionState {
+
+    static final SessionState INITIAL = new SessionState();
+
+    // Fields are only assigned on a fresh copy before it is returned
+    private GameClient.ClientState state = GameClient.ClientState.DISCONNECTED;
+    private String sessionId;
+    private String nickname;
+    private String currentRoomId;
+    private Hand playerCards = Hand.EMPTY;
+    private Hand opponentCards = Hand.EMPTY;
+    private int opponentCardCount;
+    private String opponentNickname;
+    private String currentRole; // BANKER or PLAYER
+    private int yourScore;
+    private int opponentScore;
+    private int currentRound;
+    private int playerHandValue;      // Player's hand value (from server)
+    private int opponentHandValue;    // Opponent's hand value (from server)
+
+    // Reconnect query info
+    private boolean hasPendingReconnectQuery;
+    private String reconnectRoomId;
+    private String reconnectOpponentNickname;
+
+    private SessionState() {
+    }
+
+    private SessionState copy() {
+        SessionState copy = new SessionState();
+        copy.state = state;
+        copy.sessionId = sessionId;
+        copy.nickname = nickname;
+        copy.currentRoomId = currentRoomId;
+        copy.playerCards = playerCards;
+        copy.opponentCards = opponentCards;
+        copy.opponentCardCount = opponentCardCount;
+        copy.opponentNickname = opponentNickname;
+        copy.currentRole = currentRole;
+        copy.yourScore = yourScore;
+        copy.opponentScore = opponentScore;
+        copy.currentRound = currentRound;
+        copy.playerHandValue = playerHandValue;
+        copy.opponentHandValue = opponentHandValue;
+        copy.hasPendingReconnectQuery = hasPendingReconnectQuery;
+        copy.reconnectRoomId = reconnectRoomId;
+        copy.reconnectOpponentNickname = reconnectOpponentNickname;
+        return copy;
+    }
+
+    // Transitions
+
+    public SessionState withState(GameClient.ClientState newState) {
+        SessionState next = copy();
+        next.state = newState;
+        return next;
+    }
+
+    /**
+     * Logged in (new login, reconnect or answered reconnect query)
+     */
+    public SessionState withLogin(String nickname, String sessionId, GameClient.ClientState newState) {
+        SessionState next = copy();
+        next.nickname = nickname;
+        next.sessionId = sessionId;
+        next.state = newState;
+        next.hasPendingReconnectQuery = false;
+        return next;
+    }
+
+    public SessionState withSessionId(String sessionId) {
+        SessionState next = copy();
+        next.sessionId = sessionId;
+        return next;
+    }
+
+    public SessionState withReconnectQuery(String nickname, String roomId, String opponentNickname) {
+        SessionState next = copy();
+        next.nickname = nickname;
+        next.hasPendingReconnectQuery = true;
+        next.reconnectRoomId = roomId;
+        next.reconnectOpponentNickname = opponentNickname;
+        return next;
+    }
+
+    public SessionState withoutReconnectQuery() {
+        SessionState next = copy();
+        next.hasPendingReconnectQuery = false;
+        return next;
+    }
+
+    public SessionState withCurrentRoomId(String roomId) {
+        SessionState next = copy();
+        next.currentRoomId = roomId;
+        return next;
+    }
+
+    public SessionState withGameStart(String role, String opponentNickname) {
+        SessionState next = copy();
+        next.currentRole = role;
+        next.opponentNickname = opponentNickname;
+        next.state = GameClient.ClientState.PLAYING;
+        return next;
+    }
+
+    /**
+     * Round, scores and role from GAME_STATE
+     */
+    public SessionState withGameState(int round, int yourScore, int opponentScore, String role) {
+        SessionState next = copy();
+        next.currentRound = round;
+        next.yourScore = yourScore;
+        next.opponentScore = opponentScore;
+        next.currentRole = role;
+        return next;
+    }
+
+    public SessionState withCurrentRole(String role) {
+        SessionState next = copy();
+        next.currentRole = role;
+        return next;
+    }
+
+    public SessionState withOpponentNickname(String opponentNickname) {
+        SessionState next = copy();
+        next.opponentNickname = opponentNickname;
+        return next;
+    }
+
+    /**
+     * New deal - own cards replaced, opponent cards hidden
+     */
+    public SessionState withDeal(List<String> cards) {
+        SessionState next = copy();
+        next.playerCards = Hand.of(cards);
+        next.opponentCards = Hand.EMPTY;
+        next.opponentCardCount = cards.size();
+        return next;
+    }
+
+    public SessionState withPlayerCard(String card) {
+        SessionState next = copy();
+        next.playerCards = playerCards.plus(card);
+        return next;
+    }
+
+    public SessionState withOpponentCards(List<String> cards) {
+        SessionState next = copy();
+        next.opponentCards = Hand.of(cards);
+        return next;
+    }
+
+    public SessionState withOpponentCardCount(int count) {
+        SessionState next = copy();
+        next.opponentCardCount = count;
+        return next;
+    }
+
+    public SessionState withHandValues(int playerValue, int opponentValue) {
+        SessionState next = copy();
+        next.playerHandValue = playerValue;
+        next.opponentHandValue = opponentValue;
+        return next;
+    }
+
+    /**
+     * Clears game state (cards, scores, round, room) and moves to the given state
+     */
+    public SessionState withGameReset(GameClient.ClientState newState) {
+        SessionState next = copy();
+        next.state = newState;
+        next.currentRoomId = null;
+        next.playerCards = Hand.EMPTY;
+        next.opponentNickname = null;
+        next.currentRole = null;
+        next.yourScore = 0;
+        next.opponentScore = 0;
+        next.currentRound = 0;
+        next.playerHandValue = 0;
+        next.opponentHandValue = 0;
+        return next;
+    }
+
+    // Getters
+
+    public GameClient.ClientState getState() {
+        return state;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getNickname() {
+        return nickname;
+    }
+
+    public String getCurrentRoomId() {
+        return currentRoomId;
+    }
+
+    /**
+     * @return own cards (same instance until the hand changes)
+     */
+    public Hand getPlayerCards() {
+        return playerCards;
+    }
+
+    /**
+     * @return revealed opponent cards (same instance until they change)
+     */
+    public Hand getOpponentCards() {
+        return opponentCards;
+    }
+
+    public int getOpponentCardCount() {
+        return opponentCardCount;
+    }
+
+    public String getOpponentNickname() {
+        return opponentNickname;
+    }
+
+    public String getCurrentRole() {
+        return currentRole;
+    }
+
+    public int getYourScore() {
+        return yourScore;
+    }
+
+    public int getOpponentScore() {
+        return opponentScore;
+    }
+
+    public int getCurrentRound() {
+        return currentRound;
+    }
+
+    public int getPlayerHandValue() {
+        return playerHandValue;
+    }
+
+    public int getOpponentHandValue() {
+        return opponentHandValue;
+    }
+
+    public boolean hasPendingReconnectQuery() {
+        return hasPendingReconnectQuery;
+    }
+
+    public String getReconnectRoomId() {
+        return reconnectRoomId;
+    }
+
+    public String getReconnectOpponentNickname() {
+        return reconnectOpponentNickname;
+    }
+}
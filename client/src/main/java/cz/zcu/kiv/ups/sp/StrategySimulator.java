@@ -0,0 +1,347 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Offline Monte Carlo simulator of Oko Bere strategies.
+ *
+ * Plays games with the server rules: PLAYER acts first, then BANKER, roles swap
+ * every round, a hand of exactly two aces is 21 and stands automatically, equal
+ * totals are won by the BANKER and the game ends at 3 won rounds. All rounds of a
+ * game are dealt from one 32 card deck that is refilled and reshuffled when empty.
+ *
+ * Every candidate strategy plays against a baseline strategy. Work is split with
+ * fork/join, each leaf owns its deck array and random generator and hands are kept
+ * as plain int totals, so the round loop allocates nothing.
+ *
+ * Usage: StrategySimulator [--rounds N] [--baseline T] [--thresholds 12,13,...] [--risk 0.2,0.4,...]
+ */
+public class StrategySimulator {
+
+    private static final int LEAF_ROUNDS = 100000;
+    private static final int SCORE_TO_WIN = 3;
+
+    // Card values by index (allocation-free lookup)
+    private static final int[] VALUES = new int[Cards.DECK_SIZE];
+
+    static {
+        for (int i = 0; i < Cards.DECK_SIZE; i++) {
+            VALUES[i] = Cards.value(i);
+        }
+    }
+
+    // Indexes in result counters
+    private static final int ROUNDS_AS_PLAYER = 0;
+    private static final int WINS_AS_PLAYER = 1;
+    private static final int ROUNDS_AS_BANKER = 2;
+    private static final int WINS_AS_BANKER = 3;
+    private static final int GAMES = 4;
+    private static final int GAME_WINS = 5;
+    private static final int COUNTER_COUNT = 6;
+
+    /**
+     * Decides whether to take another card
+     */
+    public interface Strategy {
+        /**
+         * @param total current hand total
+         * @param cards number of cards in hand
+         * @param banker true if playing as BANKER
+         * @param deck current deck (cards from position pos are still in it)
+         * @param pos position of next card in deck
+         * @return true to HIT, false to STAND
+         */
+        boolean hit(int total, int cards, boolean banker, int[] deck, int pos);
+
+        String getName();
+    }
+
+    /**
+     * Stands at or above a fixed total
+     */
+    public static class ThresholdStrategy implements Strategy {
+        private final int threshold;
+
+        public ThresholdStrategy(int threshold) {
+            this.threshold = threshold;
+        }
+
+        @Override
+        public boolean hit(int total, int cards, boolean banker, int[] deck, int pos) {
+            return total < threshold;
+        }
+
+        @Override
+        public String getName() {
+            return "stand>=" + threshold;
+        }
+    }
+
+    /**
+     * Card counting bot - hits while the chance of busting on the next card
+     * (from cards still in the deck) is at most the given risk.
+     * Slightly optimistic: it also knows the opponent's hidden cards are out of the deck.
+     */
+    public static class BustRiskStrategy implements Strategy {
+        private final double maxRisk;
+
+        public BustRiskStrategy(double maxRisk) {
+            this.maxRisk = maxRisk;
+        }
+
+        @Override
+        public boolean hit(int total, int cards, boolean banker, int[] deck, int pos) {
+            int remaining;
+            int busting = 0;
+
+            if (pos < deck.length) {
+                remaining = deck.length - pos;
+                for (int i = pos; i < deck.length; i++) {
+                    if (total + VALUES[deck[i]] > 21) busting++;
+                }
+            } else {
+                // Deck is empty and will be refilled with all 32 cards
+                remaining = Cards.DECK_SIZE;
+                for (int i = 0; i < Cards.DECK_SIZE; i++) {
+                    if (total + VALUES[i] > 21) busting++;
+                }
+            }
+            return busting <= maxRisk * remaining;
+        }
+
+        @Override
+        public String getName() {
+            return "bust-risk<=" + maxRisk;
+        }
+    }
+
+    /**
+     * Fork/join task playing a number of games
+     */
+    @SuppressWarnings("serial")  // ForkJoinTask is Serializable, tasks are never serialized
+    private static class SimulationTask extends RecursiveTask<long[]> {
+        private final long rounds;
+        private final SplittableRandom random;
+        private final Strategy candidate;
+        private final Strategy baseline;
+
+        SimulationTask(long rounds, SplittableRandom random, Strategy candidate, Strategy baseline) {
+            this.rounds = rounds;
+            this.random = random;
+            this.candidate = candidate;
+            this.baseline = baseline;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (rounds > LEAF_ROUNDS) {
+                long half = rounds / 2;
+                SimulationTask left = new SimulationTask(half, random.split(), candidate, baseline);
+                SimulationTask right = new SimulationTask(rounds - half, random.split(), candidate, baseline);
+                left.fork();
+                long[] result = right.compute();
+                long[] other = left.join();
+                for (int i = 0; i < COUNTER_COUNT; i++) {
+                    result[i] += other[i];
+                }
+                return result;
+            }
+            return play();
+        }
+
+        /**
+         * Leaf - plays games until the round budget is used
+         */
+        private long[] play() {
+            long[] counters = new long[COUNTER_COUNT];
+            int[] deck = new int[Cards.DECK_SIZE];
+            int[] state = new int[1];  // Deck position
+
+            long played = 0;
+            long games = 0;
+            while (played < rounds) {
+                // New game - fresh shuffled deck, starting roles alternate between games
+                for (int i = 0; i < Cards.DECK_SIZE; i++) {
+                    deck[i] = i;
+                }
+                shuffle(deck);
+                state[0] = 0;
+
+                boolean candidateIsBanker = (games++ & 1) == 1;
+                int candidateScore = 0;
+                int baselineScore = 0;
+
+                while (candidateScore < SCORE_TO_WIN && baselineScore < SCORE_TO_WIN && played < rounds) {
+                    Strategy player = candidateIsBanker ? baseline : candidate;
+                    Strategy banker = candidateIsBanker ? candidate : baseline;
+
+                    boolean bankerWon = playRound(deck, state, player, banker);
+                    boolean candidateWon = bankerWon == candidateIsBanker;
+
+                    if (candidateIsBanker) {
+                        counters[ROUNDS_AS_BANKER]++;
+                        if (candidateWon) counters[WINS_AS_BANKER]++;
+                    } else {
+                        counters[ROUNDS_AS_PLAYER]++;
+                        if (candidateWon) counters[WINS_AS_PLAYER]++;
+                    }
+
+                    if (candidateWon) {
+                        candidateScore++;
+                    } else {
+                        baselineScore++;
+                    }
+
+                    candidateIsBanker = !candidateIsBanker;
+                    played++;
+                }
+
+                if (candidateScore >= SCORE_TO_WIN || baselineScore >= SCORE_TO_WIN) {
+                    counters[GAMES]++;
+                    if (candidateScore > baselineScore) counters[GAME_WINS]++;
+                }
+            }
+            return counters;
+        }
+
+        /**
+         * Plays one round
+         * @return true if BANKER won
+         */
+        private boolean playRound(int[] deck, int[] state, Strategy player, Strategy banker) {
+            // Deal PLAYER, BANKER, PLAYER, BANKER
+            int p1 = draw(deck, state);
+            int b1 = draw(deck, state);
+            int p2 = draw(deck, state);
+            int b2 = draw(deck, state);
+
+            int playerTotal = handTotal(p1, p2);
+            int playerCards = 2;
+            if (!isDoubleAce(p1, p2)) {
+                while (player.hit(playerTotal, playerCards, false, deck, state[0])) {
+                    playerTotal += VALUES[draw(deck, state)];
+                    playerCards++;
+                    if (playerTotal > 21) {
+                        return true;
+                    }
+                }
+            }
+
+            int bankerTotal = handTotal(b1, b2);
+            int bankerCards = 2;
+            if (!isDoubleAce(b1, b2)) {
+                while (banker.hit(bankerTotal, bankerCards, true, deck, state[0])) {
+                    bankerTotal += VALUES[draw(deck, state)];
+                    bankerCards++;
+                    if (bankerTotal > 21) {
+                        return false;
+                    }
+                }
+            }
+
+            return bankerTotal >= playerTotal;
+        }
+
+        private int draw(int[] deck, int[] state) {
+            if (state[0] == Cards.DECK_SIZE) {
+                // Server refills the deck with all 32 cards
+                for (int i = 0; i < Cards.DECK_SIZE; i++) {
+                    deck[i] = i;
+                }
+                shuffle(deck);
+                state[0] = 0;
+            }
+            return deck[state[0]++];
+        }
+
+        private void shuffle(int[] deck) {
+            for (int i = deck.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = deck[i];
+                deck[i] = deck[j];
+                deck[j] = tmp;
+            }
+        }
+    }
+
+    private static int handTotal(int first, int second) {
+        return isDoubleAce(first, second) ? 21 : VALUES[first] + VALUES[second];
+    }
+
+    private static boolean isDoubleAce(int first, int second) {
+        return Cards.isAce(first) && Cards.isAce(second);
+    }
+
+    /**
+     * Runs all candidates against the baseline and prints a report
+     */
+    public static void run(List<Strategy> candidates, Strategy baseline, long rounds) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        SplittableRandom seed = new SplittableRandom();
+
+        System.out.printf("Baseline: %s, %d rounds per strategy, %d threads%n",
+            baseline.getName(), rounds, pool.getParallelism());
+        System.out.printf("%-18s %-14s %-10s %-10s %-10s %-10s%n",
+            "strategy", "rounds/s", "player%", "banker%", "round%", "game%");
+
+        for (Strategy candidate : candidates) {
+            long start = System.nanoTime();
+            long[] c = pool.invoke(new SimulationTask(rounds, seed.split(), candidate, baseline));
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            long played = c[ROUNDS_AS_PLAYER] + c[ROUNDS_AS_BANKER];
+            System.out.printf("%-18s %-14.0f %-10.2f %-10.2f %-10.2f %-10.2f%n",
+                candidate.getName(),
+                played / seconds,
+                percent(c[WINS_AS_PLAYER], c[ROUNDS_AS_PLAYER]),
+                percent(c[WINS_AS_BANKER], c[ROUNDS_AS_BANKER]),
+                percent(c[WINS_AS_PLAYER] + c[WINS_AS_BANKER], played),
+                percent(c[GAME_WINS], c[GAMES]));
+        }
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : 100.0 * part / whole;
+    }
+
+    public static void main(String[] args) {
+        long rounds = 10_000_000;
+        int baselineThreshold = OddsEngine.DEFAULT_OPPONENT_STAND_THRESHOLD;
+        String thresholds = "12,13,14,15,16,17,18,19";
+        String risks = "0.2,0.35,0.5";
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--rounds":
+                    rounds = Long.parseLong(args[i + 1]);
+                    break;
+                case "--baseline":
+                    baselineThreshold = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--thresholds":
+                    thresholds = args[i + 1];
+                    break;
+                case "--risk":
+                    risks = args[i + 1];
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+
+        List<Strategy> candidates = new ArrayList<>();
+        for (String t : thresholds.split(",")) {
+            if (!t.isEmpty()) candidates.add(new ThresholdStrategy(Integer.parseInt(t.trim())));
+        }
+        for (String r : risks.split(",")) {
+            if (!r.isEmpty()) candidates.add(new BustRiskStrategy(Double.parseDouble(r.trim())));
+        }
+
+        run(candidates, new ThresholdStrategy(baselineThreshold), rounds);
+    }
+}
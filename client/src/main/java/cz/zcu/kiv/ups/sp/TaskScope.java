@@ -0,0 +1,181 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scope of subtasks sharing one deadline and one cancellation.
+ *
+ * Subtasks are forked as session tasks of a ClientExecutor and joined by the owner.
+ * When the deadline passes, a subtask fails, cancel() is called or the scope is
+ * closed without succeed(), all subtasks are interrupted and the cleanup actions
+ * run (e.g. closing the socket a subtask is blocked on), so nothing outlives the
+ * scope. Works like StructuredTaskScope, which is only a preview API in Java 21.
+ */
+public class TaskScope implements AutoCloseable {
+
+    private final String name;
+    private final long timeoutNanos;
+    private final ClientExecutor executor;
+    private final AtomicInteger forkNumber = new AtomicInteger();
+    private final List<Future<?>> forks = new ArrayList<>();
+    private final List<Runnable> cleanups = new ArrayList<>();
+
+    private volatile long deadlineNanos;
+    private volatile boolean cancelled;
+    private boolean succeeded;
+
+    /**
+     * @param name scope name used for task names
+     * @param timeoutMs time limit of the whole scope
+     * @param executor executor running the subtasks
+     */
+    public TaskScope(String name, long timeoutMs, ClientExecutor executor) {
+        this.name = name;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.deadlineNanos = System.nanoTime() + timeoutNanos;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a subtask
+     * @param task subtask
+     * @return future of the subtask result
+     */
+    public synchronized <T> Future<T> fork(Callable<T> task) {
+        if (cancelled) {
+            throw new CancellationException(name + " was cancelled");
+        }
+        Future<T> future = executor.submitSessionTask(name + "-" + forkNumber.incrementAndGet(), task);
+        forks.add(future);
+        return future;
+    }
+
+    /**
+     * Waits for a subtask until the scope deadline.
+     * On timeout or subtask failure the whole scope is cancelled.
+     * @return subtask result
+     * @throws TimeoutException deadline passed
+     * @throws CancellationException scope was cancelled
+     * @throws ExecutionException subtask failed
+     */
+    public <T> T join(Future<T> future) throws InterruptedException, ExecutionException, TimeoutException {
+        return join(future, true);
+    }
+
+    /**
+     * Waits for a subtask without deadline, e.g. for a user decision.
+     * Cancelling the scope still ends the wait.
+     */
+    public <T> T joinUntimed(Future<T> future) throws InterruptedException, ExecutionException {
+        try {
+            return join(future, false);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(e);  // Not possible without deadline
+        }
+    }
+
+    private <T> T join(Future<T> future, boolean timed) throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            while (true) {
+                checkActive();
+                // Wake up periodically so cancel() ends waits on futures the scope does not own
+                long waitNanos = TimeUnit.MILLISECONDS.toNanos(100);
+                if (timed) {
+                    long remaining = deadlineNanos - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new TimeoutException(name + " timed out");
+                    }
+                    waitNanos = Math.min(waitNanos, remaining);
+                }
+                try {
+                    return future.get(waitNanos, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    // Check cancellation and deadline again
+                }
+            }
+        } catch (TimeoutException | ExecutionException | InterruptedException e) {
+            cancel();
+            throw e;
+        }
+    }
+
+    /**
+     * Restarts the deadline, e.g. after waiting for the user
+     */
+    public void restartDeadline() {
+        deadlineNanos = System.nanoTime() + timeoutNanos;
+    }
+
+    /**
+     * Registers an action run when the scope is cancelled or closed without success
+     */
+    public synchronized void onCancel(Runnable cleanup) {
+        cleanups.add(cleanup);
+    }
+
+    /**
+     * @throws CancellationException if the scope was cancelled
+     */
+    public void checkActive() {
+        if (cancelled) {
+            throw new CancellationException(name + " was cancelled");
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Marks the scope as successful, cleanup actions will not run on close
+     */
+    public synchronized void succeed() {
+        succeeded = true;
+    }
+
+    /**
+     * Cancels all subtasks and runs cleanup actions (callable from any thread)
+     * @return true if this call cancelled the scope, false if it already ended
+     */
+    public boolean cancel() {
+        List<Runnable> toRun;
+        synchronized (this) {
+            if (cancelled || succeeded) {
+                return false;
+            }
+            cancelled = true;
+            for (Future<?> fork : forks) {
+                fork.cancel(true);
+            }
+            toRun = new ArrayList<>(cleanups);
+        }
+
+        for (Runnable cleanup : toRun) {
+            try {
+                cleanup.run();
+            } catch (RuntimeException e) {
+                Logger.warning("Cleanup of " + name + " failed: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        // Subtasks still running after succeed() are not needed any more
+        synchronized (this) {
+            for (Future<?> fork : forks) {
+                fork.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package cz.zcu.kiv.ups.sp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Text protocol - UTF-8 lines ending with '\n' (a preceding '\r' is ignored),
+ * parameters separated by '|'. Used until the server offers another format.
+ */
+public class TextCodec implements MessageCodec {
+
+    public static final String NAME = "TEXT";
+
+    // Bytes of the line being received
+    private byte[] line = new byte[128];
+    private int length;
+    private int lastReadSize;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int write(OutputStream out, String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes);
+        out.write('\n');
+        return bytes.length + 1;
+    }
+
+    @Override
+    public String read(InputStream in) throws IOException {
+        while (true) {
+            int b = in.read();
+            if (b < 0) {
+                return null;
+            }
+
+            String message = accept(b);
+            if (message != null) {
+                return message;
+            }
+        }
+    }
+
+    @Override
+    public int getLastReadSize() {
+        return lastReadSize;
+    }
+
+    /**
+     * Adds a received byte to the current line
+     * @param b received byte
+     * @return the completed line, null if the line continues
+     */
+    String accept(int b) {
+        if (b != '\n') {
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = (byte) b;
+            return null;
+        }
+
+        lastReadSize = length + 1;
+        int end = length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+        String message = new String(line, 0, end, StandardCharsets.UTF_8);
+        length = 0;
+        return message;
+    }
+
+    /**
+     * Checks if part of a line was received
+     */
+    boolean hasPartialLine() {
+        return length > 0;
+    }
+}
@@ -1,6 +1,9 @@
 module cz.zcu.kiv.ups.sp {
     requires javafx.controls;
     requires javafx.fxml;
+    requires java.management;
+    requires jdk.jfr;
+    requires jdk.net;
 
 
     opens cz.zcu.kiv.ups.sp to javafx.fxml;
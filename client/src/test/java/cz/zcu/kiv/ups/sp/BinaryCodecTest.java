@@ -0,0 +1,95 @@
+package cz.zcu.kiv.ups.sp;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCodecTest {
+
+    private static String roundTrip(String message) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = new BinaryCodec().write(out, message);
+        assertEquals(out.size(), written);
+
+        BinaryCodec reader = new BinaryCodec();
+        String read = reader.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(written, reader.getLastReadSize());
+        return read;
+    }
+
+    @Test
+    void messagesKeepTheirTextForm() throws IOException {
+        for (String message : new String[] {
+                "PING",
+                "OK|a1b2c3|BIN1",
+                "CARD|SRDCE-KRAL",
+                "DEAL_CARDS|ZALUDY-ESO|KULE-SEDM",
+                "ROUND_END|alice|21|-3|0",
+                "ROOM|7|Room name|1|2",
+                "LOGIN|Žluťoučký",
+                "ROOM_CREATED|",
+                "ERROR||x"}) {
+            assertEquals(message, roundTrip(message));
+        }
+    }
+
+    @Test
+    void nonCanonicalNumbersStayText() throws IOException {
+        assertEquals("GAME_STATE|007|-0|+5|2147483648|-2147483648",
+                roundTrip("GAME_STATE|007|-0|+5|2147483648|-2147483648"));
+    }
+
+    @Test
+    void unknownCommandIsEscaped() throws IOException {
+        assertEquals("SOMETHING_NEW|1|x", roundTrip("SOMETHING_NEW|1|x"));
+    }
+
+    @Test
+    void cardsAndNumbersAreCompact() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = new BinaryCodec().write(out, "DEAL_CARDS|SRDCE-KRAL|LISTY-ESO");
+
+        // Header, command code, two tagged card indexes
+        assertEquals(3 + 1 + 2 * 2, written);
+        assertTrue(written < "DEAL_CARDS|SRDCE-KRAL|LISTY-ESO\n".length());
+    }
+
+    @Test
+    void textLinesAreStillAccepted() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write("OK|abc|BIN1\n".getBytes(StandardCharsets.UTF_8));
+        BinaryCodec codec = new BinaryCodec();
+        codec.write(out, "YOUR_TURN");
+        out.write("PONG\r\n".getBytes(StandardCharsets.UTF_8));
+
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        assertEquals("OK|abc|BIN1", codec.read(in));
+        assertEquals("YOUR_TURN", codec.read(in));
+        assertEquals("PONG", codec.read(in));
+        assertNull(codec.read(in));
+    }
+
+    @Test
+    void truncatedFrameFails() {
+        byte[] frame = {(byte) 0xB1, 0, 5, 17};
+        assertThrows(EOFException.class, () -> new BinaryCodec().read(new ByteArrayInputStream(frame)));
+    }
+
+    @Test
+    void malformedPayloadFails() {
+        byte[] unknownCode = {(byte) 0xB1, 0, 1, 100};
+        byte[] badCard = {(byte) 0xB1, 0, 3, 17, 2, 40};
+        byte[] stringPastEnd = {(byte) 0xB1, 0, 3, 17, 0, 9};
+
+        for (byte[] frame : new byte[][] {unknownCode, badCard, stringPastEnd}) {
+            assertThrows(ProtocolException.class, () -> new BinaryCodec().read(new ByteArrayInputStream(frame)));
+        }
+    }
+}
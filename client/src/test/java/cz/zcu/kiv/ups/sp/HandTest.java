@@ -0,0 +1,73 @@
+package cz.zcu.kiv.ups.sp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandTest {
+
+    @Test
+    void plusLeavesOriginalUnchanged() {
+        Hand one = Hand.EMPTY.plus("SRDCE-KRAL");
+        Hand two = one.plus("LISTY-ESO");
+
+        assertEquals(List.of("SRDCE-KRAL"), one);
+        assertEquals(List.of("SRDCE-KRAL", "LISTY-ESO"), two);
+        assertEquals(0, Hand.EMPTY.size());
+    }
+
+    @Test
+    void handsBranchingFromOnePrefixDoNotOverwriteEachOther() {
+        Hand prefix = Hand.of(List.of("SRDCE-KRAL", "LISTY-ESO"));
+        Hand left = prefix.plus("ZALUDY-SEDM");
+        Hand right = prefix.plus("KULE-DESET");
+
+        assertEquals(List.of("SRDCE-KRAL", "LISTY-ESO", "ZALUDY-SEDM"), left);
+        assertEquals(List.of("SRDCE-KRAL", "LISTY-ESO", "KULE-DESET"), right);
+    }
+
+    @Test
+    void plusGrowsPastInitialCapacity() {
+        Hand hand = Hand.EMPTY;
+        for (int i = 0; i < 20; i++) {
+            hand = hand.plus("CARD-" + i);
+        }
+
+        assertEquals(20, hand.size());
+        assertEquals("CARD-0", hand.get(0));
+        assertEquals("CARD-19", hand.get(19));
+        assertThrows(IndexOutOfBoundsException.class, () -> Hand.EMPTY.get(0));
+    }
+
+    @Test
+    void extendsHandRecognizesAppendedHands() {
+        Hand prefix = Hand.EMPTY.plus("SRDCE-KRAL");
+        Hand longer = prefix.plus("LISTY-ESO").plus("KULE-DESET");
+
+        assertTrue(longer.extendsHand(prefix));
+        assertTrue(longer.extendsHand(longer));
+        assertTrue(longer.extendsHand(Hand.EMPTY));
+        assertFalse(prefix.extendsHand(longer));
+        assertFalse(longer.extendsHand(null));
+    }
+
+    @Test
+    void extendsHandRejectsBranchAndUnrelatedHands() {
+        Hand prefix = Hand.EMPTY.plus("SRDCE-KRAL");
+        Hand left = prefix.plus("LISTY-ESO");
+        Hand right = prefix.plus("KULE-DESET");  // Copied - the slot was claimed by left
+
+        assertFalse(right.extendsHand(left));
+        assertFalse(left.extendsHand(Hand.of(List.of("SRDCE-KRAL"))));
+    }
+
+    @Test
+    void ofReturnsSameHandAndEmptyForNoCards() {
+        Hand hand = Hand.EMPTY.plus("SRDCE-KRAL");
+
+        assertSame(hand, Hand.of(hand));
+        assertSame(Hand.EMPTY, Hand.of(List.of()));
+    }
+}
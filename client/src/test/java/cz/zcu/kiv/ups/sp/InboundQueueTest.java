@@ -0,0 +1,86 @@
+package cz.zcu.kiv.ups.sp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InboundQueueTest {
+
+    private static InboundQueue<Integer> full(InboundQueue.OverflowPolicy policy, long blockTimeoutMs)
+            throws InterruptedException {
+        InboundQueue<Integer> queue = new InboundQueue<>("test", 3, policy, blockTimeoutMs);
+        for (int i = 1; i <= 3; i++) {
+            assertTrue(queue.offer(i));
+        }
+        return queue;
+    }
+
+    @Test
+    void dropOldestMakesRoomForNewElement() throws InterruptedException {
+        InboundQueue<Integer> queue = full(InboundQueue.OverflowPolicy.DROP_OLDEST, 0);
+
+        assertTrue(queue.offer(4));
+
+        assertEquals(3, queue.size());
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(2, queue.take());
+        assertEquals(3, queue.take());
+        assertEquals(4, queue.take());
+    }
+
+    @Test
+    void disconnectRejectsNewElement() throws InterruptedException {
+        InboundQueue<Integer> queue = full(InboundQueue.OverflowPolicy.DISCONNECT, 0);
+
+        assertFalse(queue.offer(4));
+
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(1, queue.take());
+    }
+
+    @Test
+    void blockDropsNewElementAfterTimeout() throws InterruptedException {
+        InboundQueue<Integer> queue = full(InboundQueue.OverflowPolicy.BLOCK, 50);
+
+        long start = System.nanoTime();
+        assertFalse(queue.offer(4));
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(3, queue.size());
+    }
+
+    @Test
+    void blockWaitsForFreeSpace() throws Exception {
+        InboundQueue<Integer> queue = full(InboundQueue.OverflowPolicy.BLOCK, 5000);
+
+        CompletableFuture<Boolean> offered = CompletableFuture.supplyAsync(() -> {
+            try {
+                return queue.offer(4);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(offered.isDone());
+
+        assertEquals(1, queue.take());
+        assertTrue(offered.get(5, TimeUnit.SECONDS));
+        assertEquals(0, queue.getDroppedCount());
+        assertEquals(3, queue.getHighWatermark());
+    }
+
+    @Test
+    void pollMatchingKeepsOrderOfOtherElements() throws InterruptedException {
+        InboundQueue<Integer> queue = full(InboundQueue.OverflowPolicy.DROP_OLDEST, 0);
+
+        assertEquals(2, queue.pollMatching(i -> i % 2 == 0, Long.MAX_VALUE));
+        assertNull(queue.pollMatching(i -> i > 10, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10)));
+
+        assertEquals(1, queue.take());
+        assertEquals(3, queue.take());
+    }
+}
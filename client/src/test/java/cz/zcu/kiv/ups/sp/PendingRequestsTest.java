@@ -0,0 +1,116 @@
+package cz.zcu.kiv.ups.sp;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PendingRequestsTest {
+
+    private static Predicate<ProtocolMessage> command(String command) {
+        return msg -> command.equals(msg.getCommand());
+    }
+
+    private static ProtocolMessage message(String line) {
+        return ProtocolMessage.parse(line);
+    }
+
+    @Test
+    void responseCompletesOldestMatchingRequest() {
+        PendingRequests pending = new PendingRequests();
+        CompletableFuture<ProtocolMessage> rooms = new CompletableFuture<>();
+        CompletableFuture<ProtocolMessage> first = new CompletableFuture<>();
+        CompletableFuture<ProtocolMessage> second = new CompletableFuture<>();
+        pending.register(command("ROOMS"), rooms);
+        pending.register(command("OK"), first);
+        pending.register(command("OK"), second);
+
+        assertTrue(pending.complete(message("OK|1")));
+
+        assertTrue(first.isDone());
+        assertEquals("1", first.join().getParameter(0));
+        assertFalse(rooms.isDone());
+        assertFalse(second.isDone());
+        assertEquals(2, pending.size());
+    }
+
+    @Test
+    void unexpectedMessageIsNotConsumed() {
+        PendingRequests pending = new PendingRequests();
+        CompletableFuture<ProtocolMessage> ok = new CompletableFuture<>();
+        pending.register(command("OK"), ok);
+
+        assertFalse(pending.complete(message("YOUR_TURN")));
+        assertFalse(ok.isDone());
+        assertEquals(1, pending.size());
+    }
+
+    @Test
+    void errorGoesToOldestRequest() {
+        PendingRequests pending = new PendingRequests();
+        CompletableFuture<ProtocolMessage> hit = new CompletableFuture<>();
+        CompletableFuture<ProtocolMessage> stand = new CompletableFuture<>();
+        pending.register(command("OK"), hit);
+        pending.register(command("ROOMS"), stand);
+
+        assertTrue(pending.complete(message("ERROR|Not your turn")));
+
+        assertTrue(hit.join().isError());
+        assertFalse(stand.isDone());
+    }
+
+    @Test
+    void lateResponseToTimedOutRequestIsAbsorbed() {
+        PendingRequests pending = new PendingRequests();
+        CompletableFuture<ProtocolMessage> timedOut = new CompletableFuture<>();
+        CompletableFuture<ProtocolMessage> next = new CompletableFuture<>();
+        pending.register(command("OK"), timedOut);
+        pending.register(command("OK"), next);
+        timedOut.cancel(false);
+
+        // The late OK belongs to the timed out request and must not complete the next one
+        assertTrue(pending.complete(message("OK|late")));
+        assertFalse(next.isDone());
+        assertEquals(1, pending.size());
+
+        assertTrue(pending.complete(message("OK|own")));
+        assertEquals("own", next.join().getParameter(0));
+        assertEquals(0, pending.size());
+    }
+
+    @Test
+    void unregisterRemovesUnsentRequest() {
+        PendingRequests pending = new PendingRequests();
+        CompletableFuture<ProtocolMessage> unsent = new CompletableFuture<>();
+        CompletableFuture<ProtocolMessage> sent = new CompletableFuture<>();
+        pending.register(command("OK"), unsent);
+        pending.register(command("OK"), sent);
+
+        pending.unregister(unsent);
+        pending.complete(message("OK"));
+
+        assertFalse(unsent.isDone());
+        assertTrue(sent.isDone());
+    }
+
+    @Test
+    void failAllFailsEveryRequest() {
+        PendingRequests pending = new PendingRequests();
+        CompletableFuture<ProtocolMessage> first = new CompletableFuture<>();
+        CompletableFuture<ProtocolMessage> second = new CompletableFuture<>();
+        pending.register(command("OK"), first);
+        pending.register(command("ROOMS"), second);
+
+        pending.failAll(new IOException("Connection lost"));
+
+        assertEquals(0, pending.size());
+        ExecutionException error = assertThrows(ExecutionException.class, first::get);
+        assertInstanceOf(IOException.class, error.getCause());
+        assertTrue(second.isCompletedExceptionally());
+        assertFalse(pending.complete(message("OK")));
+    }
+}
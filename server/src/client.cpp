@@ -6,7 +6,7 @@
 
 Client::Client(int socket, const std::string& address)
     : socket(socket), address(address), state(Protocol::CONNECTED),
-      roomId(-1), invalidMessageCount(0) {
+      roomId(-1), binary(false), invalidMessageCount(0) {
     sessionId = generateSessionId();
     updateLastActivity();
 }
@@ -30,17 +30,53 @@ void Client::appendToReadBuffer(const std::string& data) {
 }
 
 /**
- * Checks if the buffer contains a complete message (terminated with \n).
+ * Returns the total size of the BIN1 frame at the start of the buffer,
+ * 0 if the buffer starts with a text message.
+ */
+static size_t binaryFrameSize(const std::string& buffer) {
+    if (buffer.empty() || static_cast<unsigned char>(buffer[0]) != Protocol::BIN1_MARKER) {
+        return 0;
+    }
+    if (buffer.length() < Protocol::BIN1_HEADER_SIZE) {
+        return Protocol::BIN1_HEADER_SIZE;
+    }
+    size_t payloadLength = (static_cast<unsigned char>(buffer[1]) << 8) | static_cast<unsigned char>(buffer[2]);
+    return Protocol::BIN1_HEADER_SIZE + payloadLength;
+}
+
+/**
+ * Checks if the buffer contains a complete message (terminated with \n or a whole BIN1 frame).
  */
 bool Client::hasCompleteMessage() const {
+    size_t frameSize = binaryFrameSize(readBuffer);
+    if (frameSize > 0) {
+        return readBuffer.length() >= frameSize;
+    }
     return readBuffer.find(Protocol::MESSAGE_END) != std::string::npos;
 }
 
 /**
- * Extracts one complete message from the buffer.
- * @return Message without the trailing \n
+ * Extracts one complete message from the buffer, BIN1 frames are decoded to text.
+ * The first BIN1 frame switches messages sent to the client to BIN1 as well.
+ * @return Message without the trailing \n (empty for a malformed frame)
  */
 std::string Client::extractMessage() {
+    size_t frameSize = binaryFrameSize(readBuffer);
+    if (frameSize > 0) {
+        if (readBuffer.length() < frameSize) {
+            return "";
+        }
+        std::string message;
+        bool valid = Protocol::decodeBinary(
+            readBuffer.substr(Protocol::BIN1_HEADER_SIZE, frameSize - Protocol::BIN1_HEADER_SIZE), message);
+        readBuffer.erase(0, frameSize);
+        if (!valid) {
+            return "";
+        }
+        binary = true;
+        return message;
+    }
+
     size_t pos = readBuffer.find(Protocol::MESSAGE_END);
     if (pos == std::string::npos) {
         return "";
@@ -53,10 +89,10 @@ std::string Client::extractMessage() {
 }
 
 /**
- * Adds a message to the send queue.
+ * Adds a message to the send queue (encoded as BIN1 frames if the client uses BIN1).
  */
 void Client::queueMessage(const std::string& message) {
-    writeQueue.push(message);
+    writeQueue.push(binary ? Protocol::encodeBinary(message) : message);
 }
 
 /**
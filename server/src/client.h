@@ -21,6 +21,7 @@ public:
     Protocol::ClientState getState() const { return state; }
     int getRoomId() const { return roomId; }
     int getInvalidMessageCount() const { return invalidMessageCount; }
+    bool isBinary() const { return binary; }
 
     // Settery
     void setNickname(const std::string& nick) { nickname = nick; }
@@ -59,6 +60,7 @@ private:
 
     std::string readBuffer;
     std::queue<std::string> writeQueue;
+    bool binary;  // Client sent a BIN1 frame, replies are sent as BIN1 frames too
 
     int invalidMessageCount;
     time_t lastActivity;
@@ -1,9 +1,161 @@
 #include "protocol.h"
+#include "card.h"
 #include <sstream>
 #include <algorithm>
+#include <climits>
 
 namespace Protocol {
 
+namespace {
+
+// BIN1 command codes - part of the wire format (same table as the client), only append new commands
+const char* const BIN1_COMMANDS[] = {
+    "LOGIN", "OK", "ERROR", "PING", "PONG", "DISCONNECT",
+    "ROOM_LIST", "ROOMS", "ROOM", "CREATE_ROOM", "ROOM_CREATED", "JOIN_ROOM", "JOINED", "LEAVE_ROOM",
+    "GAME_START", "GAME_STATE", "DEAL_CARDS", "CARD", "YOUR_TURN", "HIT", "STAND", "PLAY_CARD",
+    "OPPONENT_ACTION", "ROUND_END", "GAME_END", "OPPONENT_LEFT",
+    "PLAYER_DISCONNECTED", "PLAYER_RECONNECTED",
+    "RECONNECT", "RECONNECT_QUERY", "RECONNECT_ACCEPT", "RECONNECT_DECLINE",
+    "ACK_DEAL_CARDS", "ACK_GAME_STATE", "ACK_ROUND_END", "ACK_GAME_END"
+};
+const int BIN1_COMMAND_COUNT = sizeof(BIN1_COMMANDS) / sizeof(BIN1_COMMANDS[0]);
+const int BIN1_ESCAPE = 0xFF;
+const int BIN1_CARD_COUNT = 32;
+
+// Item tags
+const int TAG_STRING = 0;
+const int TAG_INT = 1;
+const int TAG_CARD = 2;
+
+/**
+ * Returns protocol name of a card by index (suit * 8 + rank, same as the client).
+ */
+std::string cardName(int index) {
+    return Card(static_cast<Card::Suit>(index / 8), static_cast<Card::Rank>(index % 8)).toString();
+}
+
+/**
+ * Returns card index of a protocol card name, -1 if it is not a card.
+ */
+int cardIndex(const std::string& name) {
+    for (int i = 0; i < BIN1_CARD_COUNT; i++) {
+        if (cardName(i) == name) {
+            return i;
+        }
+    }
+    return -1;
+}
+
+/**
+ * Checks if a parameter is an int written exactly as std::to_string() would write it.
+ */
+bool isCanonicalInt(const std::string& param) {
+    size_t digits = (!param.empty() && param[0] == '-') ? 1 : 0;
+    if (param.length() == digits || param.length() - digits > 10) {
+        return false;
+    }
+    if (param[digits] == '0' && (param.length() > digits + 1 || digits == 1)) {
+        return false;  // Leading zero or "-0"
+    }
+    for (size_t i = digits; i < param.length(); i++) {
+        if (param[i] < '0' || param[i] > '9') {
+            return false;
+        }
+    }
+    long long value = std::stoll(param);
+    return value >= INT_MIN && value <= INT_MAX;
+}
+
+void putVarint(std::string& out, uint32_t value) {
+    while (value & ~0x7Fu) {
+        out += static_cast<char>((value & 0x7F) | 0x80);
+        value >>= 7;
+    }
+    out += static_cast<char>(value);
+}
+
+void putString(std::string& out, const std::string& value) {
+    out += static_cast<char>(TAG_STRING);
+    putVarint(out, static_cast<uint32_t>(value.length()));
+    out += value;
+}
+
+void putParameter(std::string& out, const std::string& param) {
+    int card = cardIndex(param);
+    if (card >= 0) {
+        out += static_cast<char>(TAG_CARD);
+        out += static_cast<char>(card);
+    } else if (isCanonicalInt(param)) {
+        int32_t value = std::stoi(param);
+        out += static_cast<char>(TAG_INT);
+        putVarint(out, (static_cast<uint32_t>(value) << 1) ^ static_cast<uint32_t>(value >> 31));
+    } else {
+        putString(out, param);
+    }
+}
+
+bool nextByte(const std::string& payload, size_t& pos, int& value) {
+    if (pos >= payload.length()) {
+        return false;
+    }
+    value = static_cast<unsigned char>(payload[pos++]);
+    return true;
+}
+
+bool nextVarint(const std::string& payload, size_t& pos, uint32_t& value) {
+    value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+        int b;
+        if (!nextByte(payload, pos, b)) {
+            return false;
+        }
+        value |= static_cast<uint32_t>(b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+            return true;
+        }
+    }
+    return false;
+}
+
+bool appendItem(const std::string& payload, size_t& pos, std::string& message) {
+    int tag;
+    if (!nextByte(payload, pos, tag)) {
+        return false;
+    }
+
+    switch (tag) {
+        case TAG_STRING: {
+            uint32_t length;
+            if (!nextVarint(payload, pos, length) || length > payload.length() - pos) {
+                return false;
+            }
+            message.append(payload, pos, length);
+            pos += length;
+            return true;
+        }
+        case TAG_INT: {
+            uint32_t zigzag;
+            if (!nextVarint(payload, pos, zigzag)) {
+                return false;
+            }
+            message += std::to_string(static_cast<int32_t>((zigzag >> 1) ^ (~(zigzag & 1) + 1)));
+            return true;
+        }
+        case TAG_CARD: {
+            int card;
+            if (!nextByte(payload, pos, card) || card >= BIN1_CARD_COUNT) {
+                return false;
+            }
+            message += cardName(card);
+            return true;
+        }
+        default:
+            return false;
+    }
+}
+
+} // namespace
+
 /**
  * Parses protocol message into parts.
  * @param message Message to parse (without \n at the end)
@@ -93,4 +245,91 @@ bool isValidNickname(const std::string& nickname) {
     return true;
 }
 
+/**
+ * Encodes text message(s) into BIN1 frames.
+ * @param message One or more messages, each terminated with \n
+ * @return Frames of all messages (a message too long for a frame stays in text form)
+ */
+std::string encodeBinary(const std::string& message) {
+    std::string frames;
+    size_t lineStart = 0;
+
+    while (lineStart < message.length()) {
+        size_t lineEnd = message.find(MESSAGE_END, lineStart);
+        if (lineEnd == std::string::npos) {
+            lineEnd = message.length();
+        }
+        std::string line = message.substr(lineStart, lineEnd - lineStart);
+        lineStart = lineEnd + 1;
+
+        // Command, then one item per parameter (empty parameters included)
+        std::string payload;
+        size_t end = line.find(DELIMITER);
+        std::string command = line.substr(0, end);
+        int code = -1;
+        for (int i = 0; i < BIN1_COMMAND_COUNT; i++) {
+            if (command == BIN1_COMMANDS[i]) {
+                code = i;
+                break;
+            }
+        }
+        if (code < 0) {
+            payload += static_cast<char>(BIN1_ESCAPE);
+            putString(payload, command);
+        } else {
+            payload += static_cast<char>(code);
+        }
+
+        while (end != std::string::npos) {
+            size_t start = end + 1;
+            end = line.find(DELIMITER, start);
+            putParameter(payload, line.substr(start, end == std::string::npos ? std::string::npos : end - start));
+        }
+
+        if (payload.length() > BIN1_MAX_PAYLOAD) {
+            frames += line + MESSAGE_END;  // Client accepts text lines in BIN1 mode too
+            continue;
+        }
+        frames += static_cast<char>(BIN1_MARKER);
+        frames += static_cast<char>(payload.length() >> 8);
+        frames += static_cast<char>(payload.length() & 0xFF);
+        frames += payload;
+    }
+
+    return frames;
+}
+
+/**
+ * Decodes the payload of a BIN1 frame into a text message.
+ * @param payload Frame payload (without marker and length)
+ * @param message Decoded message without \n at the end
+ * @return false if the payload is malformed
+ */
+bool decodeBinary(const std::string& payload, std::string& message) {
+    message.clear();
+    size_t pos = 0;
+    int code;
+    if (!nextByte(payload, pos, code)) {
+        return false;
+    }
+
+    if (code == BIN1_ESCAPE) {
+        if (!appendItem(payload, pos, message)) {
+            return false;
+        }
+    } else if (code < BIN1_COMMAND_COUNT) {
+        message += BIN1_COMMANDS[code];
+    } else {
+        return false;
+    }
+
+    while (pos < payload.length()) {
+        message += DELIMITER;
+        if (!appendItem(payload, pos, message)) {
+            return false;
+        }
+    }
+    return true;
+}
+
 } // namespace Protocol
@@ -3,6 +3,7 @@
 
 #include <string>
 #include <vector>
+#include <cstdint>
 
 /**
  * Constants and utility functions for protocol operations.
@@ -14,6 +15,13 @@ namespace Protocol {
     const int MAX_MESSAGE_SIZE = 4096;
     const int MAX_INVALID_MESSAGES = 3;
 
+    // Binary wire format, advertised after the session ID in the OK of a login
+    // (OK|sessionId|BIN1). Frame: marker, payload length (2 bytes, big endian), payload.
+    const std::string FORMAT_BIN1 = "BIN1";
+    const unsigned char BIN1_MARKER = 0xB1;
+    const size_t BIN1_HEADER_SIZE = 3;
+    const size_t BIN1_MAX_PAYLOAD = 0xFFFF;
+
     // Timeouts (in seconds)
     const int RECONNECT_TIMEOUT = 30;
 
@@ -74,6 +82,10 @@ namespace Protocol {
     std::string buildMessage(const std::vector<std::string>& parts);
     std::string escapeString(const std::string& str);
     bool isValidNickname(const std::string& nickname);
+
+    // BIN1 encoding of text messages
+    std::string encodeBinary(const std::string& message);
+    bool decodeBinary(const std::string& payload, std::string& message);
 }
 
 #endif // PROTOCOL_H
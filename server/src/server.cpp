@@ -229,11 +229,9 @@ void Server::handleClientData(Client* client) {
         return;
     }
 
-    buffer[bytesRead] = '\0';
-
     // VALIDATION: Catch buffer overflow exceptions
     try {
-        client->appendToReadBuffer(std::string(buffer));
+        client->appendToReadBuffer(std::string(buffer, bytesRead));  // BIN1 frames may contain \0
     } catch (const std::runtime_error& e) {
         LOG_WARNING("Buffer overflow from client " + client->getAddress() + ": " + e.what());
         disconnectClient(client, "Message too large");
@@ -447,7 +445,7 @@ void Server::handleLogin(Client* client, const std::vector<std::string>& parts)
 
 
                 // Send OK with session ID
-                client->queueMessage(Protocol::buildMessage({Protocol::CMD_OK, client->getSessionId()}));
+                client->queueMessage(Protocol::buildMessage({Protocol::CMD_OK, client->getSessionId(), Protocol::FORMAT_BIN1}));
 
                 // Send game state to reconnected player
                 Game* game = room->getGame();
@@ -621,7 +619,7 @@ void Server::handleLogin(Client* client, const std::vector<std::string>& parts)
         client->setState(Protocol::LOBBY);
         activeNicknames.insert(nickname);
 
-        client->queueMessage(Protocol::buildMessage({Protocol::CMD_OK, client->getSessionId()}));
+        client->queueMessage(Protocol::buildMessage({Protocol::CMD_OK, client->getSessionId(), Protocol::FORMAT_BIN1}));
         LOG_INFO("Client " + client->getAddress() + " logged in as " + nickname);
 
         // Log state for recovery
@@ -988,7 +986,7 @@ void Server::handleReconnectAccept(Client* client) {
 
 
     // Send OK with session ID
-    client->queueMessage(Protocol::buildMessage({Protocol::CMD_OK, client->getSessionId()}));
+    client->queueMessage(Protocol::buildMessage({Protocol::CMD_OK, client->getSessionId(), Protocol::FORMAT_BIN1}));
 
     // Send game state to reconnected player
     Game* game = room->getGame();
@@ -1158,7 +1156,7 @@ void Server::handleReconnectDecline(Client* client) {
     client->setState(Protocol::LOBBY);
     activeNicknames.insert(nickname);
 
-    client->queueMessage(Protocol::buildMessage({Protocol::CMD_OK, client->getSessionId()}));
+    client->queueMessage(Protocol::buildMessage({Protocol::CMD_OK, client->getSessionId(), Protocol::FORMAT_BIN1}));
 
     // Log state
     std::map<std::string, std::string> loginData = {